@@ -5,19 +5,60 @@
  */
 package jdplus.toolkitx.base.api.processing;
 
-import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 import jdplus.toolkit.base.api.information.InformationSet;
 import jdplus.toolkitx.base.api.processing.IProcessingHook.HookInformation;
 
 /**
+ * The hooks are stored in copy-on-write lists, so that the dispatching
+ * doesn't need any lock. By default, all the hooks are called synchronously,
+ * in the processing thread. In asynchronous mode, the information is put in a
+ * bounded ring buffer and dispatched to the usual hooks by an executor; those
+ * hooks can't cancel the processing. The hooks registered as synchronous
+ * (typically hooks that may cancel the processing) are always called in the
+ * processing thread, before the other ones.
  *
  * @author Jean
  * @param <I> Information dispatched in hooking
  */
 public class ProcessingHookProvider<I> implements IProcessingHookProvider<I> {
 
-    private final ArrayList<IProcessingHook<I>> hooks = new ArrayList<>();
+    /**
+     * Behaviour of the asynchronous dispatching when the buffer is full
+     */
+    public static enum Backpressure {
+        /**
+         * The processing waits for a free slot
+         */
+        Block,
+        /**
+         * The new information is discarded
+         */
+        Drop,
+        /**
+         * The oldest pending information is discarded in favour of the new one
+         */
+        Coalesce
+    }
+
+    public static final int DEF_CAPACITY = 1024;
+
+    // waiting strategy of flush and of the Block policy: a few spins, then
+    // parking with a delay doubled at each step
+    private static final int SPINS = 64;
+    private static final long MIN_PARK = 1000, MAX_PARK = 1000000;
+
+    private final List<IProcessingHook<I>> hooks = new CopyOnWriteArrayList<>();
+    private final List<IProcessingHook<I>> syncHooks = new CopyOnWriteArrayList<>();
     private volatile String message = IProcessingHook.EMPTY;
+    private volatile Dispatcher<I> dispatcher;
 
     @Override
     public void setHookMessage(String msg) {
@@ -30,40 +71,256 @@ public class ProcessingHookProvider<I> implements IProcessingHookProvider<I> {
     }
 
     @Override
-    public synchronized boolean hasHooks() {
-        return !hooks.isEmpty();
+    public boolean hasHooks() {
+        return !hooks.isEmpty() || !syncHooks.isEmpty();
     }
 
     @Override
-    public synchronized void register(IProcessingHook<I> hook) {
+    public void register(IProcessingHook<I> hook) {
         hooks.add(hook);
     }
 
+    /**
+     * Registers a hook that is always called in the processing thread, even
+     * in asynchronous mode. Such hooks can cancel the processing
+     *
+     * @param hook
+     */
+    public void registerSynchronous(IProcessingHook<I> hook) {
+        syncHooks.add(hook);
+    }
+
     @Override
-    public synchronized void unregister(IProcessingHook<I> hook) {
-        for (IProcessingHook<I> cur : hooks) {
+    public void unregister(IProcessingHook<I> hook) {
+        if (!remove(hooks, hook)) {
+            remove(syncHooks, hook);
+        }
+    }
+
+    private static <I> boolean remove(List<IProcessingHook<I>> list, IProcessingHook<I> hook) {
+        for (IProcessingHook<I> cur : list) {
             if (hook == cur) {
-                hooks.remove(cur);
-                return;
+                list.remove(cur);
+                return true;
             }
         }
+        return false;
     }
 
     @Override
-    public synchronized void processHooks(HookInformation<I> info, boolean cancancel) {
+    public void processHooks(HookInformation<I> info, boolean cancancel) {
         info.setMessage(InformationSet.item(message, info.getMessage()));
-        for (IProcessingHook<I> cur : hooks) {
+        if (!dispatch(syncHooks, info, cancancel)) {
+            return;
+        }
+        Dispatcher<I> cur = dispatcher;
+        if (cur == null) {
+            dispatch(hooks, info, cancancel);
+        } else if (!hooks.isEmpty()) {
+            cur.post(info);
+        }
+    }
+
+    /**
+     *
+     * @param list
+     * @param info
+     * @param cancancel
+     * @return false if the processing has been cancelled
+     */
+    private static <I> boolean dispatch(List<IProcessingHook<I>> list, HookInformation<I> info, boolean cancancel) {
+        for (IProcessingHook<I> cur : list) {
             cur.process(info, cancancel);
             if (cancancel && info.isCancel()) {
-                return;
-           }
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Switches to the asynchronous dispatching of the information to the
+     * usual (not synchronous) hooks. The pending information of a previous
+     * asynchronous dispatcher is flushed first
+     *
+     * @param executor Executor used to call the hooks. Only one task is
+     * active at a time, so that the order of the information is preserved.
+     * If the executor rejects a task, the dispatcher stops: the pending and
+     * the new information are discarded
+     * @param capacity Size of the buffer
+     * @param policy Behaviour when the buffer is full
+     */
+    public void asynchronousDispatch(Executor executor, int capacity, Backpressure policy) {
+        close(dispatcher);
+        dispatcher = new Dispatcher<>(this, executor, capacity, policy);
+    }
+
+    /**
+     * Switches back to the synchronous dispatching (default), after having
+     * flushed the pending information
+     */
+    public void synchronousDispatch() {
+        close(dispatcher);
+        dispatcher = null;
+    }
+
+    /**
+     * Flushes and stops a dispatcher. The information posted to it afterwards
+     * is discarded
+     */
+    private static <I> void close(Dispatcher<I> cur) {
+        if (cur != null) {
+            cur.await(Long.MAX_VALUE);
+            cur.running = false;
+        }
+    }
+
+    public boolean isAsynchronous() {
+        return dispatcher != null;
+    }
+
+    /**
+     * Waits until all the information posted so far has been dispatched or
+     * until the dispatcher stops (see asynchronousDispatch)
+     */
+    public void flush() {
+        Dispatcher<I> cur = dispatcher;
+        if (cur != null) {
+            cur.await(Long.MAX_VALUE);
         }
     }
- 
+
+    /**
+     * Waits at most the given time until all the information posted so far
+     * has been dispatched
+     *
+     * @param timeout
+     * @param unit
+     * @return false if some information is still pending (timeout elapsed) or
+     * if the dispatcher stopped
+     */
+    public boolean flush(long timeout, TimeUnit unit) {
+        Dispatcher<I> cur = dispatcher;
+        return cur == null || cur.await(unit.toNanos(timeout));
+    }
+
+    /**
+     * Number of information discarded by the asynchronous dispatcher (Drop or
+     * Coalesce policies)
+     *
+     * @return
+     */
+    public long getDroppedCount() {
+        Dispatcher<I> cur = dispatcher;
+        return cur == null ? 0 : cur.dropped.get();
+    }
+
     public void copyHooks(final ProcessingHookProvider<I> ph) {
-        synchronized (ph.hooks) {
-            hooks.addAll(ph.hooks);
-            message = ph.message;
+        hooks.addAll(ph.hooks);
+        syncHooks.addAll(ph.syncHooks);
+        message = ph.message;
+    }
+
+    private static final class Dispatcher<I> {
+
+        private final ProcessingHookProvider<I> provider;
+        private final Executor executor;
+        private final Backpressure policy;
+        private final HookRingBuffer<HookInformation<I>> buffer;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final AtomicLong dropped = new AtomicLong();
+        private volatile boolean running = true;
+
+        private Dispatcher(ProcessingHookProvider<I> provider, Executor executor, int capacity, Backpressure policy) {
+            this.provider = provider;
+            this.executor = executor;
+            this.policy = policy;
+            this.buffer = new HookRingBuffer<>(capacity <= 0 ? DEF_CAPACITY : capacity);
+        }
+
+        void post(HookInformation<I> info) {
+            int step = 0;
+            while (running && !buffer.offer(info)) {
+                switch (policy) {
+                    case Drop -> {
+                        dropped.incrementAndGet();
+                        schedule();
+                        return;
+                    }
+                    case Coalesce -> {
+                        if (buffer.poll() != null) {
+                            dropped.incrementAndGet();
+                        }
+                    }
+                    default -> {
+                        schedule();
+                        pause(step++, Long.MAX_VALUE);
+                    }
+                }
+            }
+            if (running) {
+                schedule();
+            } else {
+                dropped.incrementAndGet();
+            }
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    executor.execute(this::drain);
+                } catch (RejectedExecutionException err) {
+                    running = false;
+                    while (buffer.poll() != null) {
+                        dropped.incrementAndGet();
+                    }
+                    scheduled.set(false);
+                }
+            }
+        }
+
+        private void drain() {
+            do {
+                try {
+                    HookInformation<I> info;
+                    while ((info = buffer.poll()) != null) {
+                        dispatch(provider.hooks, info, false);
+                    }
+                } finally {
+                    scheduled.set(false);
+                }
+                // information posted after the last poll but before the reset
+            } while (!buffer.isEmpty() && scheduled.compareAndSet(false, true));
+        }
+
+        /**
+         * Waits until the buffer is empty and the drain task is finished
+         *
+         * @param nanos Maximum waiting time
+         * @return false if the time elapsed or if the dispatcher stopped (some
+         * information may have been discarded)
+         */
+        boolean await(long nanos) {
+            long deadline = System.nanoTime() + nanos;
+            int step = 0;
+            while (!buffer.isEmpty() || scheduled.get()) {
+                long remaining = deadline - System.nanoTime();
+                if (!running || remaining <= 0) {
+                    return false;
+                }
+                schedule();
+                pause(step++, remaining);
+            }
+            return running;
+        }
+
+        private static void pause(int step, long remaining) {
+            if (step < SPINS) {
+                Thread.onSpinWait();
+            } else {
+                long park = MIN_PARK << Math.min(step - SPINS, 10);
+                LockSupport.parkNanos(Math.min(Math.min(park, MAX_PARK), remaining));
+            }
         }
     }
 
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2026 JDemetra+.
+ * Licensed under the EUPL, Version 1.2 or – as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ *      https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package jdplus.toolkitx.base.api.processing;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import jdplus.toolkitx.base.api.processing.IProcessingHook.HookInformation;
+import jdplus.toolkitx.base.api.processing.ProcessingHookProvider.Backpressure;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ *
+ * @author Jean Palate
+ */
+public class ProcessingHookProviderTest {
+
+    private static final int PRODUCERS = 4, COUNT = 20000;
+
+    public ProcessingHookProviderTest() {
+    }
+
+    @Test
+    public void testBlock() throws InterruptedException {
+        ProcessingHookProvider<int[]> provider = new ProcessingHookProvider<>();
+        // information received by producer, in the order of the dispatching
+        int[] last = new int[PRODUCERS];
+        AtomicInteger received = new AtomicInteger(), disordered = new AtomicInteger();
+        provider.register((info, cancancel) -> {
+            int[] cur = info.getInformation();
+            if (cur[1] != last[cur[0]]++) {
+                disordered.incrementAndGet();
+            }
+            received.incrementAndGet();
+        });
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            provider.asynchronousDispatch(executor, 16, Backpressure.Block);
+            produce(provider);
+            provider.flush();
+            assertEquals(PRODUCERS * COUNT, received.get());
+            assertEquals(0, disordered.get());
+            assertEquals(0, provider.getDroppedCount());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testDropConcurrent() throws InterruptedException {
+        ProcessingHookProvider<int[]> provider = new ProcessingHookProvider<>();
+        AtomicInteger received = new AtomicInteger();
+        provider.register((info, cancancel) -> received.incrementAndGet());
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            provider.asynchronousDispatch(executor, 16, Backpressure.Drop);
+            produce(provider);
+            assertTrue(provider.flush(1, TimeUnit.MINUTES));
+            assertEquals(PRODUCERS * COUNT, received.get() + provider.getDroppedCount());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testCoalesceConcurrent() throws InterruptedException {
+        ProcessingHookProvider<int[]> provider = new ProcessingHookProvider<>();
+        AtomicInteger received = new AtomicInteger();
+        provider.register((info, cancancel) -> received.incrementAndGet());
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            provider.asynchronousDispatch(executor, 16, Backpressure.Coalesce);
+            produce(provider);
+            assertTrue(provider.flush(1, TimeUnit.MINUTES));
+            assertEquals(PRODUCERS * COUNT, received.get() + provider.getDroppedCount());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testDrop() {
+        List<Runnable> tasks = new ArrayList<>();
+        ProcessingHookProvider<int[]> provider = new ProcessingHookProvider<>();
+        List<Integer> received = new ArrayList<>();
+        provider.register((info, cancancel) -> received.add(info.getInformation()[1]));
+        // the tasks are only executed on demand
+        provider.asynchronousDispatch(tasks::add, 8, Backpressure.Drop);
+        post(provider, 20);
+        assertEquals(12, provider.getDroppedCount());
+        assertFalse(provider.flush(10, TimeUnit.MILLISECONDS));
+        run(tasks);
+        // the first ones are kept
+        assertEquals(List.of(0, 1, 2, 3, 4, 5, 6, 7), received);
+        assertTrue(provider.flush(0, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testCoalesce() {
+        List<Runnable> tasks = new ArrayList<>();
+        ProcessingHookProvider<int[]> provider = new ProcessingHookProvider<>();
+        List<Integer> received = new ArrayList<>();
+        provider.register((info, cancancel) -> received.add(info.getInformation()[1]));
+        provider.asynchronousDispatch(tasks::add, 8, Backpressure.Coalesce);
+        post(provider, 20);
+        assertEquals(12, provider.getDroppedCount());
+        run(tasks);
+        // the last ones are kept
+        assertEquals(List.of(12, 13, 14, 15, 16, 17, 18, 19), received);
+        assertTrue(provider.flush(0, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testStoppedDispatcher() {
+        ProcessingHookProvider<int[]> provider = new ProcessingHookProvider<>();
+        provider.register((info, cancancel) -> {
+        });
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        executor.shutdown();
+        provider.asynchronousDispatch(executor, 8, Backpressure.Block);
+        // neither the producer nor flush wait for a rejected task
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            post(provider, 20);
+            provider.flush();
+        });
+        assertFalse(provider.flush(1, TimeUnit.SECONDS));
+        assertEquals(20, provider.getDroppedCount());
+        provider.synchronousDispatch();
+        assertFalse(provider.isAsynchronous());
+    }
+
+    private static void post(ProcessingHookProvider<int[]> provider, int n) {
+        for (int i = 0; i < n; ++i) {
+            provider.processHooks(new HookInformation<>(new int[]{0, i}), false);
+        }
+    }
+
+    private static void run(List<Runnable> tasks) {
+        while (!tasks.isEmpty()) {
+            tasks.remove(0).run();
+        }
+    }
+
+    private static void produce(ProcessingHookProvider<int[]> provider) throws InterruptedException {
+        Thread[] producers = new Thread[PRODUCERS];
+        for (int p = 0; p < PRODUCERS; ++p) {
+            int id = p;
+            producers[p] = new Thread(() -> {
+                for (int i = 0; i < COUNT; ++i) {
+                    provider.processHooks(new HookInformation<>(new int[]{id, i}), false);
+                }
+            });
+            producers[p].start();
+        }
+        for (Thread t : producers) {
+            t.join();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2026 JDemetra+.
+ * Licensed under the EUPL, Version 1.2 or – as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ *      https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package jdplus.toolkitx.base.bench;
+
+import jdplus.toolkit.base.api.math.matrices.Matrix;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Accuracy of the detection, reported as secondary results of the benchmarks
+ * (public fields). The timed method only keeps a reference to its results;
+ * the outliers are counted at the end of the iteration, outside of the
+ * measurements. The synthetic series are deterministic, so that all the
+ * invocations of an iteration should give the same results: changes is 1 if
+ * the last results differ from the first ones.
+ *
+ * @author Jean Palate
+ */
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.EVENTS)
+public class Accuracy {
+
+    /**
+     * Number of detected outliers
+     */
+    public int found;
+    /**
+     * Number of detected outliers that correspond to an injected outlier
+     */
+    public int matched;
+    /**
+     * Number of injected outliers
+     */
+    public int injected;
+    public int changes;
+
+    private SyntheticSeries series;
+    private Matrix first, last;
+    private boolean recorded;
+
+    @Setup(Level.Iteration)
+    public void clear() {
+        found = 0;
+        matched = 0;
+        injected = 0;
+        changes = 0;
+        series = null;
+        first = null;
+        last = null;
+        recorded = false;
+    }
+
+    @TearDown(Level.Iteration)
+    public void count() {
+        if (!recorded) {
+            return;
+        }
+        injected = series.getPositions().length;
+        if (last != null) {
+            int n = last.getRowsCount();
+            int[] pos = new int[n];
+            for (int i = 0; i < n; ++i) {
+                pos[i] = (int) last.get(i, 0);
+            }
+            found = n;
+            matched = series.matches(pos);
+        }
+        changes = same(first, last) ? 0 : 1;
+    }
+
+    private static boolean same(Matrix a, Matrix b) {
+        if (a == null || b == null) {
+            return a == b;
+        }
+        int nr = a.getRowsCount(), nc = a.getColumnsCount();
+        if (nr != b.getRowsCount() || nc != b.getColumnsCount()) {
+            return false;
+        }
+        for (int i = 0; i < nr; ++i) {
+            for (int j = 0; j < nc; ++j) {
+                if (Double.compare(a.get(i, j), b.get(i, j)) != 0) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Keeps the results of an invocation (no computation in the timed
+     * method)
+     *
+     * @param series The processed series
+     * @param outliers The detected outliers (position in the first column).
+     * May be null
+     */
+    void record(SyntheticSeries series, Matrix outliers) {
+        if (!recorded) {
+            this.series = series;
+            first = outliers;
+            recorded = true;
+        }
+        last = outliers;
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2026 JDemetra+.
+ * Licensed under the EUPL, Version 1.2 or – as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ *      https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package jdplus.toolkitx.base.bench;
+
+import java.util.concurrent.TimeUnit;
+import jdplus.sts.base.api.BsmSpec;
+import jdplus.toolkit.base.api.ssf.sts.SeasonalModel;
+import jdplus.toolkitx.base.r.Outliers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Outliers detection in basic structural models (BsmOutliersDetector), for
+ * the different estimation methods used in the forward step and for the
+ * different scorings of the candidates (one regression per candidate or
+ * auxiliary residuals)
+ *
+ * @author Jean Palate
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BsmOutliersBenchmark {
+
+    private static final long SEED = 20260101;
+    private static final double CV = 2.7 * 2.7;
+
+    @Param({"60", "240", "1000", "5000"})
+    public int length;
+
+    @Param({"Full", "Score", "AnalyticScore", "Point"})
+    public String forward;
+
+    @Param({"regression", "auxiliary"})
+    public String scoring;
+
+    private SyntheticSeries series;
+    private BsmSpec spec;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        series = SyntheticSeries.airline(length, SEED);
+        spec = BsmSpec.builder()
+                .noise(true)
+                .level(true, true)
+                .seasonal(SeasonalModel.HarrisonStevens)
+                .cycle(false)
+                .build();
+    }
+
+    @Benchmark
+    public Outliers.Results detect(Accuracy accuracy) {
+        Outliers.Results rslt = Outliers.bsmOutliers(series.getData(), SyntheticSeries.PERIOD, spec, null, CV,
+                true, true, false, true, forward, "Point", scoring.equals("auxiliary"));
+        accuracy.record(series, rslt == null ? null : rslt.getOutliers());
+        return rslt;
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2026 JDemetra+.
+ * Licensed under the EUPL, Version 1.2 or – as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ *      https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package jdplus.toolkitx.base.bench;
+
+import java.util.concurrent.TimeUnit;
+import jdplus.toolkit.base.api.data.DoubleSeq;
+import jdplus.toolkit.base.core.arima.estimation.ArmaFilter;
+import jdplus.toolkit.base.core.regarima.RegArimaModel;
+import jdplus.toolkit.base.core.regarima.estimation.ConcentratedLikelihoodComputer;
+import jdplus.toolkit.base.core.sarima.SarimaModel;
+import jdplus.toolkit.base.core.stats.likelihood.ConcentratedLikelihoodWithMissing;
+import jdplus.toolkitx.base.core.arima.ChandrasekharFilter;
+import jdplus.toolkitx.base.core.arima.SsfArima2Kernel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Concentrated likelihood of RegArima models (the inner loop of the
+ * estimation), for the different ARMA filters. The models are given as in
+ * SsfArimaBenchmark.
+ *
+ * @author Jean Palate
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RegArimaLikelihoodBenchmark {
+
+    private static final long SEED = 20260101;
+
+    @Param({"60", "240", "1000"})
+    public int length;
+
+    @Param({"0,1,1,0,1,1", "1,1,1,0,1,1", "2,1,0,1,1,0", "1,1,1,1,1,1", "3,1,1,0,1,1"})
+    public String orders;
+
+    @Param({"ansley", "kalman", "chandrasekhar", "kernel"})
+    public String filter;
+
+    private RegArimaModel<SarimaModel> regarima;
+    private ConcentratedLikelihoodComputer computer;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        regarima = RegArimaModel.<SarimaModel>builder()
+                .y(DoubleSeq.of(SyntheticSeries.airline(length, SEED).getData()))
+                .arima(SsfArimaBenchmark.model(orders))
+                .build();
+        ArmaFilter armaFilter = switch (filter) {
+            case "kalman" ->
+                ArmaFilter.kalman(true);
+            case "chandrasekhar" ->
+                new ChandrasekharFilter();
+            case "kernel" ->
+                new SsfArima2Kernel();
+            default ->
+                ArmaFilter.ansley();
+        };
+        computer = new ConcentratedLikelihoodComputer(armaFilter, null, true);
+    }
+
+    @Benchmark
+    public ConcentratedLikelihoodWithMissing likelihood() {
+        return computer.compute(regarima);
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2026 JDemetra+.
+ * Licensed under the EUPL, Version 1.2 or – as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ *      https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package jdplus.toolkitx.base.bench;
+
+import java.util.concurrent.TimeUnit;
+import jdplus.toolkit.base.core.sarima.SarimaModel;
+import jdplus.toolkitx.base.r.Outliers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Outliers detection in RegArima models (OutliersDetector), for the
+ * different filters of the single outlier detector
+ *
+ * @author Jean Palate
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RegArimaOutliersBenchmark {
+
+    private static final long SEED = 20260101;
+    private static final String[] TYPES = new String[]{"ao", "ls", "tc"};
+
+    @Param({"60", "240", "1000", "5000"})
+    public int length;
+
+    @Param({"fast", "fastc", "ansley", "kalman", "ljungbox", "x12", "hybrid", "cached", "chandrasekhar", "kernel"})
+    public String filter;
+
+    private SyntheticSeries series;
+    private SarimaModel airline;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        series = SyntheticSeries.airline(length, SEED);
+        airline = SyntheticSeries.airlineModel();
+    }
+
+    @Benchmark
+    public Outliers.Results detect(Accuracy accuracy) {
+        Outliers.Results rslt = Outliers.regarimaOutliers(series.getData(), airline, false, null, 0, TYPES, filter, true);
+        accuracy.record(series, rslt == null ? null : rslt.getOutliers());
+        return rslt;
+    }
+}
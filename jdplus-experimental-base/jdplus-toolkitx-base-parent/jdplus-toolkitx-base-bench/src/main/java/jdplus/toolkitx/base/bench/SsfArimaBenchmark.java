@@ -0,0 +1,118 @@
+/*
+ * Copyright 2026 JDemetra+.
+ * Licensed under the EUPL, Version 1.2 or – as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ *      https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package jdplus.toolkitx.base.bench;
+
+import java.util.concurrent.TimeUnit;
+import jdplus.toolkit.base.api.arima.SarimaOrders;
+import jdplus.toolkit.base.core.sarima.SarimaModel;
+import jdplus.toolkit.base.core.ssf.arima.SsfArima;
+import jdplus.toolkit.base.core.ssf.dk.DefaultDiffuseFilteringResults;
+import jdplus.toolkit.base.core.ssf.dk.DkToolkit;
+import jdplus.toolkit.base.core.ssf.univariate.Ssf;
+import jdplus.toolkit.base.core.ssf.univariate.SsfData;
+import jdplus.toolkitx.base.core.arima.SsfArima2;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Diffuse Kalman filtering of SARIMA models, with the default state space
+ * form of the toolkit (SsfArima) and with SsfArima2.
+ * The models are given as "p,d,q,bp,bd,bq" (period 12); the coefficients are
+ * fixed, stationary and invertible.
+ *
+ * @author Jean Palate
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SsfArimaBenchmark {
+
+    private static final long SEED = 20260101;
+
+    @Param({"60", "240", "1000"})
+    public int length;
+
+    @Param({"0,1,1,0,1,1", "1,1,1,0,1,1", "2,1,0,1,1,0", "1,1,1,1,1,1", "3,1,1,0,1,1"})
+    public String orders;
+
+    @Param({"ssfarima", "ssfarima2"})
+    public String form;
+
+    private SsfData data;
+    private Ssf ssf;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        data = new SsfData(SyntheticSeries.airline(length, SEED).getData());
+        SarimaModel sarima = model(orders);
+        ssf = form.equals("ssfarima2") ? SsfArima2.ssf(sarima) : SsfArima.ssf(sarima);
+    }
+
+    @Benchmark
+    public DefaultDiffuseFilteringResults filter() {
+        return DkToolkit.filter(ssf, data, true);
+    }
+
+    static SarimaModel model(String orders) {
+        String[] o = orders.split(",");
+        SarimaOrders spec = new SarimaOrders(SyntheticSeries.PERIOD);
+        spec.setP(Integer.parseInt(o[0]));
+        spec.setD(Integer.parseInt(o[1]));
+        spec.setQ(Integer.parseInt(o[2]));
+        spec.setBp(Integer.parseInt(o[3]));
+        spec.setBd(Integer.parseInt(o[4]));
+        spec.setBq(Integer.parseInt(o[5]));
+        SarimaModel.Builder builder = SarimaModel.builder(spec);
+        if (spec.getP() > 0) {
+            // (1-.5B)^p
+            double[] phi = new double[spec.getP()];
+            double[] c = new double[]{1};
+            for (int i = 0; i < spec.getP(); ++i) {
+                double[] nc = new double[c.length + 1];
+                for (int j = 0; j < c.length; ++j) {
+                    nc[j] += c[j];
+                    nc[j + 1] -= .5 * c[j];
+                }
+                c = nc;
+            }
+            System.arraycopy(c, 1, phi, 0, phi.length);
+            builder.phi(phi);
+        }
+        if (spec.getQ() > 0) {
+            builder.theta(1, SyntheticSeries.THETA);
+        }
+        if (spec.getBp() > 0) {
+            builder.bphi(1, -.3);
+        }
+        if (spec.getBq() > 0) {
+            builder.btheta(1, SyntheticSeries.BTHETA);
+        }
+        return builder.build();
+    }
+}
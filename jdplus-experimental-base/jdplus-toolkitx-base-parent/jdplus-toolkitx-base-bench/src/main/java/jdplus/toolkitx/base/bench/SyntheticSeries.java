@@ -0,0 +1,164 @@
+/*
+ * Copyright 2026 JDemetra+.
+ * Licensed under the EUPL, Version 1.2 or – as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ *      https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package jdplus.toolkitx.base.bench;
+
+import java.util.Random;
+import jdplus.toolkit.base.api.arima.SarimaOrders;
+import jdplus.toolkit.base.core.sarima.SarimaModel;
+
+/**
+ * Simulated airline-model series with injected outliers. The series are
+ * fully determined by their length and by the seed, so that the accuracy
+ * reported by the benchmarks is reproducible.
+ *
+ * @author Jean Palate
+ */
+@lombok.Value
+public class SyntheticSeries {
+
+    public static final int PERIOD = 12;
+    public static final double THETA = -.6, BTHETA = -.6;
+
+    /**
+     * Average distance between two injected outliers
+     */
+    public static final int SPACING = 40;
+
+    /**
+     * Size of the outliers, in units of the innovation standard deviation
+     */
+    public static final double SIZE = 5;
+
+    /**
+     * Decay factor of the transitory changes
+     */
+    public static final double TC_RATE = .7;
+
+    double[] data;
+    /**
+     * Positions of the injected outliers (sorted)
+     */
+    int[] positions;
+    /**
+     * Types of the injected outliers: 0 = AO, 1 = LS, 2 = TC
+     */
+    int[] types;
+
+    public static SarimaModel airlineModel() {
+        SarimaOrders spec = SarimaOrders.airline(PERIOD);
+        return SarimaModel.builder(spec)
+                .theta(THETA)
+                .btheta(BTHETA)
+                .build();
+    }
+
+    /**
+     * (1-B)(1-B^12)y(t) = (1+THETA*B)(1+BTHETA*B^12)e(t), e ~ N(0,1), with
+     * AO, LS and TC (in turn) injected every SPACING observations (at least
+     * one outlier)
+     *
+     * @param n Length of the series
+     * @param seed Seed of the random generator
+     * @return
+     */
+    public static SyntheticSeries airline(int n, long seed) {
+        Random rnd = new Random(seed);
+        int burn = 2 * PERIOD + 1;
+        int m = n + burn;
+        double[] e = new double[m];
+        for (int i = 0; i < m; ++i) {
+            e[i] = rnd.nextGaussian();
+        }
+        double[] w = new double[m];
+        for (int i = 0; i < m; ++i) {
+            double cur = e[i];
+            if (i >= 1) {
+                cur += THETA * e[i - 1];
+            }
+            if (i >= PERIOD) {
+                cur += BTHETA * e[i - PERIOD];
+            }
+            if (i >= PERIOD + 1) {
+                cur += THETA * BTHETA * e[i - PERIOD - 1];
+            }
+            w[i] = cur;
+        }
+        double[] z = new double[m];
+        for (int i = 0; i < m; ++i) {
+            double cur = w[i];
+            if (i >= 1) {
+                cur += z[i - 1];
+            }
+            if (i >= PERIOD) {
+                cur += z[i - PERIOD];
+            }
+            if (i >= PERIOD + 1) {
+                cur -= z[i - PERIOD - 1];
+            }
+            z[i] = cur;
+        }
+        double[] y = new double[n];
+        System.arraycopy(z, burn, y, 0, n);
+
+        // outliers: avoid the first and the last observations
+        int no = Math.max(1, n / SPACING);
+        int[] pos = new int[no];
+        int[] types = new int[no];
+        int step = n / (no + 1);
+        for (int i = 0; i < no; ++i) {
+            int jitter = step > 4 ? rnd.nextInt(step / 2) - step / 4 : 0;
+            pos[i] = (i + 1) * step + jitter;
+            types[i] = i % 3;
+            double size = rnd.nextBoolean() ? SIZE : -SIZE;
+            switch (types[i]) {
+                case 0 ->
+                    y[pos[i]] += size;
+                case 1 -> {
+                    for (int t = pos[i]; t < n; ++t) {
+                        y[t] += size;
+                    }
+                }
+                default -> {
+                    double c = size;
+                    for (int t = pos[i]; t < n; ++t) {
+                        y[t] += c;
+                        c *= TC_RATE;
+                    }
+                }
+            }
+        }
+        return new SyntheticSeries(y, pos, types);
+    }
+
+    /**
+     * Number of detected positions that correspond to an injected outlier
+     *
+     * @param detected The positions of the detected outliers
+     * @return
+     */
+    public int matches(int[] detected) {
+        int nm = 0;
+        for (int d : detected) {
+            for (int p : positions) {
+                if (p == d) {
+                    ++nm;
+                    break;
+                }
+            }
+        }
+        return nm;
+    }
+}
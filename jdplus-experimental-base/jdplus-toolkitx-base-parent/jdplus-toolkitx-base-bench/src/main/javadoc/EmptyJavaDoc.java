@@ -0,0 +1,6 @@
+/**
+ * Workaround for JavaDoc issues with Lombok.
+ */
+public class EmptyJavaDoc {
+
+}
\ No newline at end of file
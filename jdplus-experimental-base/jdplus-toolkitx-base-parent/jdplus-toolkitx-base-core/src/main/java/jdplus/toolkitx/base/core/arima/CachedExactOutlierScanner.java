@@ -0,0 +1,238 @@
+/*
+ * Copyright 2026 JDemetra+.
+ * Licensed under the EUPL, Version 1.2 or – as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ *      https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package jdplus.toolkitx.base.core.arima;
+
+import jdplus.toolkit.base.api.data.DoubleSeq;
+import jdplus.toolkit.base.core.arima.IArimaModel;
+import jdplus.toolkit.base.core.math.matrices.FastMatrix;
+import jdplus.toolkit.base.core.modelling.regression.IOutlierFactory;
+import jdplus.toolkit.base.core.regarima.RegArimaModel;
+import jdplus.toolkit.base.core.regarima.RegArmaModel;
+import jdplus.toolkit.base.core.regarima.outlier.SingleOutlierDetector;
+import jdplus.toolkit.base.core.stats.RobustStandardDeviationComputer;
+import nbbrd.design.Development;
+
+/**
+ * Exact computation of the t-stats of the outliers, using a cache of the
+ * filtered regressors (see FilteredPatternCache). The cache is re-used
+ * between the rounds of the detection, as long as the Arima parameters don't
+ * change. The t-stat of a candidate is computed in the model that contains
+ * the current regression variables (its regressor is projected on their
+ * orthogonal complement), as in the exact single outlier detectors. Models
+ * with missing values are not handled by the cache: they are scored by the
+ * fallback detector, if any.
+ *
+ * @author Jean Palate
+ * @param <T>
+ */
+@Development(status = Development.Status.Preliminary)
+class CachedExactOutlierScanner<T extends IArimaModel> implements OutlierScanner<T> {
+
+    private final IOutlierFactory[] factories;
+    private final RobustStandardDeviationComputer mad;
+    private final SingleOutlierDetector<T> fallback;
+    private boolean useFallback;
+    private FilteredPatternCache cache;
+    private int n, start, end;
+    private boolean[] excluded;
+    private FastMatrix T;
+    private double maxT;
+    private int maxPosition = -1, maxType = -1;
+
+    /**
+     *
+     * @param factories
+     * @param mad Robust estimation of the standard deviation of the
+     * residuals. If null, the usual estimation is used
+     */
+    CachedExactOutlierScanner(IOutlierFactory[] factories, RobustStandardDeviationComputer mad) {
+        this(factories, mad, null);
+    }
+
+    /**
+     *
+     * @param factories
+     * @param mad Robust estimation of the standard deviation of the
+     * residuals. If null, the usual estimation is used
+     * @param fallback Detector used for the models with missing values. It
+     * must use the same outlier factories. If null, such models are rejected
+     * (process fails)
+     */
+    CachedExactOutlierScanner(IOutlierFactory[] factories, RobustStandardDeviationComputer mad, SingleOutlierDetector<T> fallback) {
+        this.factories = factories;
+        this.mad = mad;
+        this.fallback = fallback;
+    }
+
+    @Override
+    public void prepare(int n) {
+        this.n = n;
+        excluded = new boolean[n * factories.length];
+        T = FastMatrix.make(n, factories.length);
+        if (fallback != null) {
+            fallback.prepare(n);
+        }
+        setBounds(0, n);
+    }
+
+    @Override
+    public void setBounds(int start, int end) {
+        this.start = start;
+        this.end = end;
+        if (fallback != null) {
+            fallback.setBounds(start, end);
+        }
+    }
+
+    @Override
+    public void exclude(int pos, int type) {
+        excluded[pos * factories.length + type] = true;
+        if (fallback != null) {
+            fallback.exclude(pos, type);
+        }
+    }
+
+    @Override
+    public void allow(int pos, int type) {
+        excluded[pos * factories.length + type] = false;
+        if (fallback != null) {
+            fallback.allow(pos, type);
+        }
+    }
+
+    @Override
+    public boolean process(RegArimaModel<T> regarima) {
+        maxT = 0;
+        maxPosition = -1;
+        maxType = -1;
+        T.set(0);
+        useFallback = regarima.getMissingValuesCount() > 0;
+        if (useFallback) {
+            if (fallback == null || !fallback.process(regarima)) {
+                return false;
+            }
+            setMax(new double[]{fallback.getMaxTStat(), fallback.getMaxOutlierPosition(), fallback.getMaxOutlierType()});
+            return true;
+        }
+        RegArmaModel<T> dm = regarima.differencedModel();
+        double[] delta = regarima.arima().getNonStationaryAr().coefficients().toArray();
+        if (cache == null || !cache.isValidFor(dm.getArma(), delta, n)) {
+            cache = new FilteredPatternCache(dm.getArma(), delta, n, factories);
+        }
+        // the residuals and the regressors must be filtered in the same way
+        IncrementalConcentratedLikelihood ll = IncrementalConcentratedLikelihood.of(cache.getFilter(), cache.getFilteredLength(), delta, dm.getY(), dm.getX());
+        if (ll == null) {
+            return false;
+        }
+        DoubleSeq e = ll.residuals();
+        double sig = mad == null ? Math.sqrt(e.ssq() / e.length()) : mad.compute(e);
+        if (sig <= 0) {
+            return false;
+        }
+        // the patterns can then be shared between threads
+        cache.initialize();
+        search(ll, sig, start, end);
+        return true;
+    }
+
+    /**
+     * Scores all the candidates of the positions [from, to[ and sets the
+     * maximum
+     *
+     * @param ll The likelihood of the current model
+     * @param sig The standard deviation of the residuals
+     * @param from
+     * @param to
+     */
+    void search(IncrementalConcentratedLikelihood ll, double sig, int from, int to) {
+        setMax(score(ll, sig, from, to));
+    }
+
+    /**
+     * Scores the candidates of the positions [from, to[. The positions are
+     * scanned in increasing order and, for each position, the types are
+     * scanned in increasing order; the first maximum of |t| is kept. Only the
+     * rows [from, to[ of the t-stats are modified, so that disjoint blocks
+     * can be scored concurrently
+     *
+     * @param ll
+     * @param sig
+     * @param from
+     * @param to
+     * @return The maximum (t, position, type). The position is -1 if there
+     * is no candidate
+     */
+    final double[] score(IncrementalConcentratedLikelihood ll, double sig, int from, int to) {
+        double tmax = 0;
+        int pmax = -1, tymax = -1;
+        int nf = factories.length;
+        for (int i = from; i < to; ++i) {
+            for (int j = 0; j < nf; ++j) {
+                if (excluded[i * nf + j]) {
+                    continue;
+                }
+                double sxx = cache.ssq(j, i);
+                if (sxx <= 0) {
+                    continue;
+                }
+                int type = j, pos = i;
+                double t = ll.tstat(sxx, s -> cache.dot(type, pos, s), sig);
+                T.set(i, j, t);
+                if (Math.abs(t) > Math.abs(tmax)) {
+                    tmax = t;
+                    pmax = i;
+                    tymax = j;
+                }
+            }
+        }
+        return new double[]{tmax, pmax, tymax};
+    }
+
+    final void setMax(double[] max) {
+        maxT = max[0];
+        maxPosition = (int) max[1];
+        maxType = (int) max[2];
+    }
+
+    @Override
+    public double getMaxTStat() {
+        return maxT;
+    }
+
+    @Override
+    public int getMaxOutlierPosition() {
+        return maxPosition;
+    }
+
+    @Override
+    public int getMaxOutlierType() {
+        return maxType;
+    }
+
+    @Override
+    public FastMatrix getT() {
+        return useFallback ? fallback.getT().deepClone() : T.deepClone();
+    }
+
+    /**
+     * Indicates that the last model has been scored by the fallback detector
+     *
+     * @return
+     */
+    boolean isFallbackUsed() {
+        return useFallback;
+    }
+}
@@ -0,0 +1,234 @@
+/*
+ * Copyright 2026 JDemetra+.
+ * Licensed under the EUPL, Version 1.2 or – as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ *      https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package jdplus.toolkitx.base.core.arima;
+
+import jdplus.toolkit.base.api.data.DoubleSeq;
+import jdplus.toolkit.base.core.arima.AutoCovarianceFunction;
+import jdplus.toolkit.base.core.arima.IArimaModel;
+import jdplus.toolkit.base.core.arima.estimation.ArmaFilter;
+import jdplus.toolkit.base.core.data.DataBlock;
+import jdplus.toolkit.base.core.math.polynomials.Polynomial;
+import nbbrd.design.Development;
+
+/**
+ * Kalman filter of a stationary ARMA model, in the representation of
+ * SsfArima2 (state u(t)...u(t-r+1), with phi(B)u(t)=e(t) and r=max(p,q+1)),
+ * computed by means of the Chandrasekhar recursions. The model is time
+ * invariant and its initial variance is the stationary one, so that the
+ * variance increments P(t+1)-P(t) have rank 1: each step costs O(r) instead
+ * of the O(r^2) of the Riccati update.
+ * When the gain and the variance of the prediction error have converged
+ * (relative changes below eps during r consecutive steps), the filter
+ * switches to a fixed gain for the rest of the series.
+ * The gains and the variances only depend on the model and on the length of
+ * the series; they are computed in prepare, so that the filter can be applied
+ * on several series (data, regression variables) at a cost of O(r) per
+ * observation.
+ *
+ * @author Jean Palate
+ */
+@Development(status = Development.Status.Preliminary)
+public class ChandrasekharFilter implements ArmaFilter {
+
+    public static final double DEF_EPS = 1e-12;
+
+    private final double eps;
+    // loading (theta, completed by 0) and first row of the transition matrix
+    private double[] z, phi;
+    private int n, m;
+    // variances of the prediction errors and (unnormalized) gains T*P*Z'
+    // before the steady state (positions [0, steady[)
+    private double[] f;
+    private double[][] k;
+    private int steady;
+    private double fs;
+    private double[] ks;
+    private double ldet;
+
+    public ChandrasekharFilter() {
+        this(DEF_EPS);
+    }
+
+    /**
+     *
+     * @param eps Relative precision used in the detection of the steady
+     * state. No switch to the steady state if eps is 0
+     */
+    public ChandrasekharFilter(double eps) {
+        this.eps = eps;
+    }
+
+    @Override
+    public int prepare(IArimaModel arima, int n) {
+        if (arima.getNonStationaryArOrder() > 0) {
+            throw new IllegalArgumentException("Stationary model expected");
+        }
+        this.n = n;
+        double[] theta = arima.getMa().coefficients().toArray();
+        double[] ar = arima.getStationaryAr().coefficients().toArray();
+        int p = ar.length - 1;
+        m = Math.max(p, theta.length);
+        z = new double[m];
+        System.arraycopy(theta, 0, z, 0, theta.length);
+        phi = new double[p];
+        for (int i = 0; i < p; ++i) {
+            phi[i] = -ar[i + 1];
+        }
+        double var = arima.getInnovationVariance();
+        f = new double[Math.min(n, 64)];
+        k = new double[f.length][];
+        // initial variance: stationary solution of P=TPT'+V (var*I for MA models)
+        double[] pz = new double[m];
+        if (p == 0) {
+            for (int i = 0; i < m; ++i) {
+                pz[i] = var * z[i];
+            }
+        } else {
+            double[] acf = new AutoCovarianceFunction(Polynomial.ONE, arima.getStationaryAr().asPolynomial(), var).values(m);
+            for (int i = 0; i < m; ++i) {
+                double s = 0;
+                for (int j = 0; j < m; ++j) {
+                    s += acf[Math.abs(i - j)] * z[j];
+                }
+                pz[i] = s;
+            }
+        }
+        double F = dot(z, pz);
+        double[] K = new double[m];
+        transition(pz, K);
+        // P(2)-P(1) = w*M*w'
+        double[] w = K.clone(), tw = new double[m];
+        double M = -1 / F;
+        int nconv = 0;
+        steady = n;
+        ldet = 0;
+        for (int t = 0; t < n; ++t) {
+            store(t, F, K);
+            ldet += Math.log(F);
+            if (t == n - 1) {
+                break;
+            }
+            double zw = dot(z, w);
+            double Fn = F + zw * zw * M;
+            transition(w, tw);
+            double dk = 0, nk = 0;
+            for (int i = 0; i < m; ++i) {
+                double x = tw[i] * M * zw;
+                K[i] += x;
+                dk += x * x;
+                nk += K[i] * K[i];
+            }
+            double Mn = M + M * M * zw * zw / F;
+            for (int i = 0; i < m; ++i) {
+                w[i] = tw[i] - K[i] * zw / Fn;
+            }
+            boolean converged = Math.abs(Fn - F) <= eps * F && dk <= eps * eps * nk;
+            F = Fn;
+            M = Mn;
+            if (eps > 0 && converged) {
+                if (++nconv >= m) {
+                    steady = t + 1;
+                    ldet += (n - steady) * Math.log(F);
+                    break;
+                }
+            } else {
+                nconv = 0;
+            }
+        }
+        fs = F;
+        ks = K;
+        return n;
+    }
+
+    private void store(int t, double F, double[] K) {
+        if (t == f.length) {
+            int nsize = Math.min(n, 2 * t);
+            double[] nf = new double[nsize];
+            System.arraycopy(f, 0, nf, 0, t);
+            double[][] nk = new double[nsize][];
+            System.arraycopy(k, 0, nk, 0, t);
+            f = nf;
+            k = nk;
+        }
+        f[t] = F;
+        k[t] = K.clone();
+    }
+
+    @Override
+    public void apply(DoubleSeq x, DataBlock y) {
+        double[] a = new double[m];
+        for (int t = 0; t < n; ++t) {
+            double F, K[];
+            if (t < steady) {
+                F = f[t];
+                K = k[t];
+            } else {
+                F = fs;
+                K = ks;
+            }
+            double v = x.get(t) - dot(z, a);
+            y.set(t, v / Math.sqrt(F));
+            // a = T*a + K*v/F
+            double c = v / F;
+            double a0 = dot(phi, a);
+            for (int i = m - 1; i > 0; --i) {
+                a[i] = a[i - 1] + K[i] * c;
+            }
+            a[0] = a0 + K[0] * c;
+        }
+    }
+
+    @Override
+    public double getLogDeterminant() {
+        return ldet;
+    }
+
+    /**
+     * First position of the steady state
+     *
+     * @return The length of the series if the steady state has not been
+     * reached
+     */
+    public int getSteadyStatePosition() {
+        return steady;
+    }
+
+    /**
+     * tx = T*x
+     *
+     * @param x
+     * @param tx
+     */
+    private void transition(double[] x, double[] tx) {
+        tx[0] = dot(phi, x);
+        System.arraycopy(x, 0, tx, 1, m - 1);
+    }
+
+    /**
+     * Sum of a(i)*b(i) for i in [0, a.length[
+     *
+     * @param a
+     * @param b
+     * @return
+     */
+    private static double dot(double[] a, double[] b) {
+        double s = 0;
+        for (int i = 0; i < a.length; ++i) {
+            s += a[i] * b[i];
+        }
+        return s;
+    }
+}
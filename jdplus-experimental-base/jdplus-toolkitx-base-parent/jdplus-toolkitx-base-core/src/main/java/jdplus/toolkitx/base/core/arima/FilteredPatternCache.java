@@ -0,0 +1,316 @@
+/*
+ * Copyright 2026 JDemetra+.
+ * Licensed under the EUPL, Version 1.2 or – as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ *      https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package jdplus.toolkitx.base.core.arima;
+
+import java.util.Arrays;
+import jdplus.toolkit.base.api.data.DoubleSeq;
+import jdplus.toolkit.base.core.arima.IArimaModel;
+import jdplus.toolkit.base.core.arima.estimation.ArmaFilter;
+import jdplus.toolkit.base.core.data.DataBlock;
+import jdplus.toolkit.base.core.modelling.regression.IOutlierFactory;
+import nbbrd.design.Development;
+
+/**
+ * Cache of the filtered (differenced) outlier regressors, for a given Arima
+ * model and a given length. The regressors are filtered by a
+ * ChandrasekharFilter, which uses a fixed gain from its steady-state position
+ * on. For usual outliers, the differenced regressors are shifted copies of
+ * one another. When a differenced regressor is 0 before the steady-state
+ * position, the filter is time-invariant on its support, so that the filtered
+ * regressors of the next positions are exactly shifted (and truncated)
+ * copies of it. Each pattern is thus filtered once for the interior positions;
+ * the positions of the boundary are filtered individually and kept. The
+ * patterns are only cached when the filter reaches its steady state early
+ * enough and when the differenced regressors are shifted copies of one
+ * another; otherwise, the regressors are filtered at each position.
+ *
+ * @author Jean Palate
+ */
+@Development(status = Development.Status.Preliminary)
+class FilteredPatternCache {
+
+    private static final int MAX_BOUNDARY = 240;
+
+    private final IArimaModel arma;
+    private final double[] delta, ar, ma;
+    private final ChandrasekharFilter filter;
+    private final int n, nd, nl, steady;
+    private final IOutlierFactory[] factories;
+    private final Entry[] entries;
+
+    private static class Entry {
+
+        /**
+         * First position of the interior
+         */
+        int t0;
+        /**
+         * Filtered regressor at position t0
+         */
+        double[] f;
+        /**
+         * cumulated sum of squares of f: cssq[k] = f[0]^2+...+f[k-1]^2
+         */
+        double[] cssq;
+        /**
+         * Filtered regressors at the positions [0, t0[
+         */
+        double[][] boundary;
+    }
+
+    /**
+     *
+     * @param arma The stationary model
+     * @param delta The coefficients of the differencing polynomial
+     * @param n The length of the series (not differenced)
+     * @param factories
+     */
+    FilteredPatternCache(IArimaModel arma, double[] delta, int n, IOutlierFactory[] factories) {
+        this.arma = arma;
+        this.delta = delta.clone();
+        this.n = n;
+        this.nd = n - delta.length + 1;
+        this.ar = arma.getAr().coefficients().toArray();
+        this.ma = arma.getMa().coefficients().toArray();
+        this.filter = new ChandrasekharFilter();
+        this.nl = filter.prepare(arma, nd);
+        this.steady = filter.getSteadyStatePosition();
+        this.factories = factories;
+        this.entries = new Entry[factories.length];
+    }
+
+    /**
+     * Checks that the cache corresponds to the given model
+     *
+     * @param arma
+     * @param delta
+     * @param n
+     * @return
+     */
+    boolean isValidFor(IArimaModel arma, double[] delta, int n) {
+        return n == this.n && Arrays.equals(delta, this.delta)
+                && Arrays.equals(arma.getAr().coefficients().toArray(), ar)
+                && Arrays.equals(arma.getMa().coefficients().toArray(), ma)
+                && arma.getInnovationVariance() == this.arma.getInnovationVariance();
+    }
+
+    /**
+     * Creates the cached patterns of all the outlier types. The cache can
+     * then be shared between threads (the patterns that are not cached are
+     * filtered on demand by the thread-safe ChandrasekharFilter)
+     */
+    void initialize() {
+        for (int i = 0; i < entries.length; ++i) {
+            entry(i);
+        }
+    }
+
+    /**
+     * Filter used for the regressors, which should also be used for the
+     * series and for the other regression variables. It is thread-safe
+     *
+     * @return
+     */
+    ArmaFilter getFilter() {
+        return filter;
+    }
+
+    /**
+     * Length of the filtered regressors
+     *
+     * @return
+     */
+    int getFilteredLength() {
+        return nl;
+    }
+
+    /**
+     * Filtered regressor (new array)
+     *
+     * @param type
+     * @param pos
+     * @return
+     */
+    double[] regressor(int type, int pos) {
+        Entry entry = entry(type);
+        if (entry == null) {
+            return filtered(type, pos);
+        } else if (pos < entry.t0) {
+            return entry.boundary[pos].clone();
+        } else {
+            double[] x = new double[nl];
+            int shift = pos - entry.t0;
+            if (shift < nl) {
+                System.arraycopy(entry.f, 0, x, shift, nl - shift);
+            }
+            return x;
+        }
+    }
+
+    /**
+     * Sum of squares of the filtered regressor
+     *
+     * @param type
+     * @param pos
+     * @return
+     */
+    double ssq(int type, int pos) {
+        Entry entry = entry(type);
+        if (entry == null) {
+            return DoubleSeq.of(filtered(type, pos)).ssq();
+        } else if (pos < entry.t0) {
+            return DoubleSeq.of(entry.boundary[pos]).ssq();
+        } else {
+            int shift = pos - entry.t0;
+            return shift >= nl ? 0 : entry.cssq[nl - shift];
+        }
+    }
+
+    /**
+     * Cross-product of the filtered regressor with the given (filtered)
+     * series
+     *
+     * @param type
+     * @param pos
+     * @param e
+     * @return
+     */
+    double dot(int type, int pos, DoubleSeq e) {
+        Entry entry = entry(type);
+        if (entry == null) {
+            return DoubleSeq.of(filtered(type, pos)).dot(e);
+        } else if (pos < entry.t0) {
+            return DoubleSeq.of(entry.boundary[pos]).dot(e);
+        } else {
+            int shift = pos - entry.t0;
+            double[] f = entry.f;
+            double s = 0;
+            for (int i = 0, j = shift; j < nl; ++i, ++j) {
+                s += f[i] * e.get(j);
+            }
+            return s;
+        }
+    }
+
+    private Entry entry(int type) {
+        Entry entry = entries[type];
+        if (entry == null) {
+            entry = create(type);
+            entries[type] = entry;
+        }
+        return entry.f == null ? null : entry;
+    }
+
+    private Entry create(int type) {
+        Entry entry = new Entry();
+        int tmax = Math.min(MAX_BOUNDARY, n / 2);
+        if (nl != nd || steady >= tmax) {
+            // not cached
+            return entry;
+        }
+        // first position whose differenced regressor is 0 before the steady
+        // state
+        int t0 = steady;
+        double[] dx0 = differenced(type, t0);
+        int first = firstNonZero(dx0);
+        while (first >= 0 && first < steady && t0 < tmax) {
+            t0 += steady - first;
+            dx0 = differenced(type, t0);
+            first = firstNonZero(dx0);
+        }
+        if (first < steady || t0 >= tmax || !isShifted(dx0, differenced(type, t0 + 1))) {
+            // not cached
+            return entry;
+        }
+        entry.t0 = t0;
+        entry.f = filter(dx0);
+        entry.cssq = new double[nl + 1];
+        for (int i = 0; i < nl; ++i) {
+            entry.cssq[i + 1] = entry.cssq[i] + entry.f[i] * entry.f[i];
+        }
+        entry.boundary = new double[entry.t0][];
+        for (int pos = 0; pos < entry.t0; ++pos) {
+            entry.boundary[pos] = filtered(type, pos);
+        }
+        return entry;
+    }
+
+    /**
+     * Checks that dx1 is exactly dx0 shifted by one position (the last
+     * element of dx0 is dropped)
+     *
+     * @param dx0
+     * @param dx1
+     * @return
+     */
+    private static boolean isShifted(double[] dx0, double[] dx1) {
+        if (dx1[0] != 0) {
+            return false;
+        }
+        for (int i = 1; i < dx1.length; ++i) {
+            if (dx1[i] != dx0[i - 1]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     *
+     * @param x
+     * @return The first non-zero element of x or -1 if x = 0
+     */
+    private static int firstNonZero(double[] x) {
+        for (int i = 0; i < x.length; ++i) {
+            if (x[i] != 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Differenced and filtered regressor
+     *
+     * @param type
+     * @param pos
+     * @return
+     */
+    private double[] filtered(int type, int pos) {
+        return filter(differenced(type, pos));
+    }
+
+    private double[] filter(double[] dx) {
+        double[] fx = new double[nl];
+        filter.apply(DoubleSeq.of(dx), DataBlock.of(fx));
+        return fx;
+    }
+
+    private double[] differenced(int type, int pos) {
+        DataBlock x = DataBlock.make(n);
+        factories[type].fill(pos, x);
+        int d = delta.length - 1;
+        double[] dx = new double[nd];
+        for (int t = 0; t < nd; ++t) {
+            double s = 0;
+            for (int i = 0; i <= d; ++i) {
+                s += delta[i] * x.get(t + d - i);
+            }
+            dx[t] = s;
+        }
+        return dx;
+    }
+}
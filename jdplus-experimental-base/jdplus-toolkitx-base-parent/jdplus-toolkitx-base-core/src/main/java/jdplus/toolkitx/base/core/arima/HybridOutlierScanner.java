@@ -0,0 +1,197 @@
+/*
+ * Copyright 2026 JDemetra+.
+ * Licensed under the EUPL, Version 1.2 or – as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ *      https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package jdplus.toolkitx.base.core.arima;
+
+import java.util.Arrays;
+import jdplus.toolkit.base.core.arima.IArimaModel;
+import jdplus.toolkit.base.core.math.matrices.FastMatrix;
+import jdplus.toolkit.base.core.regarima.RegArimaModel;
+import jdplus.toolkit.base.core.regarima.outlier.SingleOutlierDetector;
+import nbbrd.design.Development;
+
+/**
+ * Two-stage scan of the outliers. All the candidates are screened with a
+ * fast (approximate) detector; the exact t-stats are then computed only for
+ * the top-k candidates and for the candidates above a reduced threshold.
+ * The other candidates keep their approximate t-stats. Both detectors must
+ * use the same outlier factories.
+ *
+ * @author Jean Palate
+ * @param <T>
+ */
+@Development(status = Development.Status.Preliminary)
+class HybridOutlierScanner<T extends IArimaModel> implements OutlierScanner<T> {
+
+    private final SingleOutlierDetector<T> fast, exact;
+    private final int topk;
+    private final double threshold;
+    private int n, nf, start, end;
+    private boolean[] excluded, selected;
+    private int nselected;
+    private double maxT;
+    private int maxPosition = -1, maxType = -1;
+
+    /**
+     *
+     * @param fast Detector used in the screening
+     * @param exact Detector used for the selected candidates
+     * @param topk Number of the most significant candidates (in the
+     * screening) that are always verified
+     * @param threshold The candidates with a larger |t| (in the screening) are
+     * also verified
+     */
+    HybridOutlierScanner(SingleOutlierDetector<T> fast, SingleOutlierDetector<T> exact, int topk, double threshold) {
+        this.fast = fast;
+        this.exact = exact;
+        this.topk = topk;
+        this.threshold = threshold;
+    }
+
+    @Override
+    public void prepare(int n) {
+        this.n = n;
+        this.nf = fast.getOutlierFactoriesCount();
+        fast.prepare(n);
+        exact.prepare(n);
+        excluded = new boolean[n * nf];
+        selected = new boolean[n * nf];
+        setBounds(0, n);
+    }
+
+    @Override
+    public void setBounds(int start, int end) {
+        this.start = start;
+        this.end = end;
+        fast.setBounds(start, end);
+        exact.setBounds(start, end);
+    }
+
+    @Override
+    public void exclude(int pos, int type) {
+        excluded[pos * nf + type] = true;
+        fast.exclude(pos, type);
+    }
+
+    @Override
+    public void allow(int pos, int type) {
+        excluded[pos * nf + type] = false;
+        fast.allow(pos, type);
+    }
+
+    @Override
+    public boolean process(RegArimaModel<T> regarima) {
+        maxT = 0;
+        maxPosition = -1;
+        maxType = -1;
+        Arrays.fill(selected, false);
+        nselected = 0;
+        if (!fast.process(regarima)) {
+            return false;
+        }
+        // screening
+        FastMatrix F = fast.getT();
+        double[] t = new double[(end - start) * nf];
+        int m = 0;
+        for (int i = start; i < end; ++i) {
+            for (int j = 0; j < nf; ++j) {
+                double cur = Math.abs(F.get(i, j));
+                if (!excluded[i * nf + j] && Double.isFinite(cur)) {
+                    t[m++] = cur;
+                }
+            }
+        }
+        if (m == 0) {
+            return true;
+        }
+        double tmin = threshold;
+        if (topk > 0) {
+            Arrays.sort(t, 0, m);
+            tmin = Math.min(tmin, t[Math.max(0, m - topk)]);
+        }
+        for (int i = start; i < end; ++i) {
+            for (int j = 0; j < nf; ++j) {
+                int k = i * nf + j;
+                double cur = Math.abs(F.get(i, j));
+                if (!excluded[k] && Double.isFinite(cur) && cur >= tmin) {
+                    selected[k] = true;
+                    ++nselected;
+                    exact.allow(i, j);
+                } else {
+                    exact.exclude(i, j);
+                }
+            }
+        }
+        if (nselected == 0) {
+            return true;
+        }
+        // verification
+        if (!exact.process(regarima)) {
+            return false;
+        }
+        if (exact.getMaxOutlierPosition() >= 0) {
+            maxT = exact.getMaxTStat();
+            maxPosition = exact.getMaxOutlierPosition();
+            maxType = exact.getMaxOutlierType();
+        }
+        return true;
+    }
+
+    @Override
+    public double getMaxTStat() {
+        return maxT;
+    }
+
+    @Override
+    public int getMaxOutlierPosition() {
+        return maxPosition;
+    }
+
+    @Override
+    public int getMaxOutlierType() {
+        return maxType;
+    }
+
+    /**
+     * Exact t-stats for the verified candidates, approximate t-stats for the
+     * other ones
+     *
+     * @return
+     */
+    @Override
+    public FastMatrix getT() {
+        FastMatrix T = fast.getT().deepClone();
+        if (nselected > 0) {
+            FastMatrix E = exact.getT();
+            for (int i = start; i < end; ++i) {
+                for (int j = 0; j < nf; ++j) {
+                    if (selected[i * nf + j]) {
+                        T.set(i, j, E.get(i, j));
+                    }
+                }
+            }
+        }
+        return T;
+    }
+
+    /**
+     * Number of candidates verified in the last scan
+     *
+     * @return
+     */
+    int getVerifiedCount() {
+        return nselected;
+    }
+}
@@ -0,0 +1,388 @@
+/*
+ * Copyright 2026 JDemetra+.
+ * Licensed under the EUPL, Version 1.2 or – as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ *      https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package jdplus.toolkitx.base.core.arima;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+import jdplus.toolkit.base.api.data.DoubleSeq;
+import jdplus.toolkit.base.core.arima.IArimaModel;
+import jdplus.toolkit.base.core.arima.estimation.ArmaFilter;
+import jdplus.toolkit.base.core.data.DataBlock;
+import jdplus.toolkit.base.core.math.matrices.FastMatrix;
+import jdplus.toolkit.base.core.regarima.RegArimaModel;
+import jdplus.toolkit.base.core.regarima.RegArmaModel;
+import nbbrd.design.Development;
+
+/**
+ * Concentrated likelihood of a RegArima model with fixed Arima parameters,
+ * which can be updated when a regression variable is added or removed.
+ * The filtered regression variables are kept in a QR decomposition (Q
+ * explicit, R upper triangular). Adding a variable is a Gram-Schmidt step and
+ * removing a variable is a sequence of Givens rotations, so that each update
+ * costs O(n*k) instead of the O(n*k^2) of a full computation (and the
+ * filtering of all the variables).
+ *
+ * @author Jean Palate
+ */
+@Development(status = Development.Status.Preliminary)
+class IncrementalConcentratedLikelihood {
+
+    private static final double EPS = 1e-9;
+
+    private final ArmaFilter filter;
+    private final double[] delta;
+    private final int n, nl;
+    // residuals of the current model (filtered)
+    private final double[] e;
+    // orthonormal columns of Q
+    private final List<double[]> q = new ArrayList<>();
+    // columns of R (column j contains j+1 elements)
+    private final List<double[]> r = new ArrayList<>();
+    // Q'y
+    private final List<Double> qy = new ArrayList<>();
+    // Q'e (theoretically 0), refreshed after each update
+    private double[] qe = new double[0];
+
+    /**
+     * Creates the incremental likelihood corresponding to the given model
+     *
+     * @param <M>
+     * @param regarima
+     * @return null if the model contains missing values or if the regression
+     * variables are (nearly) collinear
+     */
+    static <M extends IArimaModel> IncrementalConcentratedLikelihood of(RegArimaModel<M> regarima) {
+        if (regarima.getMissingValuesCount() > 0) {
+            return null;
+        }
+        RegArmaModel<M> dm = regarima.differencedModel();
+        DoubleSeq delta = regarima.arima().getNonStationaryAr().coefficients();
+        IncrementalConcentratedLikelihood ll = new IncrementalConcentratedLikelihood(dm.getArma(), delta.toArray(), dm.getY());
+        FastMatrix x = dm.getX();
+        if (x != null) {
+            for (int i = 0; i < x.getColumnsCount(); ++i) {
+                if (!ll.addDifferenced(x.column(i))) {
+                    return null;
+                }
+            }
+        }
+        return ll;
+    }
+
+    /**
+     * Creates the incremental likelihood of a differenced series, with a
+     * filter that has already been prepared (shared by several series of the
+     * same length)
+     *
+     * @param filter The prepared filter
+     * @param nl The length of the filtered series (see ArmaFilter.prepare)
+     * @param delta The coefficients of the differencing polynomial
+     * @param dy The differenced series
+     * @param dx The differenced regression variables. May be null
+     * @return null if the regression variables are (nearly) collinear
+     */
+    static IncrementalConcentratedLikelihood of(ArmaFilter filter, int nl, double[] delta, DoubleSeq dy, FastMatrix dx) {
+        IncrementalConcentratedLikelihood ll = new IncrementalConcentratedLikelihood(filter, nl, delta, dy);
+        if (dx != null) {
+            for (int i = 0; i < dx.getColumnsCount(); ++i) {
+                if (!ll.addDifferenced(dx.column(i))) {
+                    return null;
+                }
+            }
+        }
+        return ll;
+    }
+
+    private IncrementalConcentratedLikelihood(IArimaModel arma, double[] delta, DoubleSeq dy) {
+        this.filter = ArmaFilter.ansley();
+        this.delta = delta;
+        this.n = dy.length();
+        this.nl = filter.prepare(arma, n);
+        this.e = new double[nl];
+        filter.apply(dy, DataBlock.of(e));
+    }
+
+    private IncrementalConcentratedLikelihood(ArmaFilter filter, int nl, double[] delta, DoubleSeq dy) {
+        this.filter = filter;
+        this.delta = delta;
+        this.n = dy.length();
+        this.nl = nl;
+        this.e = new double[nl];
+        filter.apply(dy, DataBlock.of(e));
+    }
+
+    /**
+     * Number of observations used in the likelihood (after differencing)
+     *
+     * @return
+     */
+    int dim() {
+        return n;
+    }
+
+    /**
+     * Length of the filtered series
+     *
+     * @return
+     */
+    int getFilteredLength() {
+        return nl;
+    }
+
+    /**
+     * Number of regression variables
+     *
+     * @return
+     */
+    int nx() {
+        return q.size();
+    }
+
+    /**
+     * Filtered residuals of the current model
+     *
+     * @return
+     */
+    DoubleSeq residuals() {
+        return DoubleSeq.of(e);
+    }
+
+    double ssq() {
+        double s = 0;
+        for (int i = 0; i < nl; ++i) {
+            s += e[i] * e[i];
+        }
+        return s;
+    }
+
+    /**
+     * Adds a regression variable (not differenced) at the end of the current
+     * variables
+     *
+     * @param x The new variable. Its length should be the number of
+     * observations of the initial RegArima model
+     * @return false if the new variable is collinear with the existing
+     * variables. The decomposition is then unchanged
+     */
+    boolean add(DoubleSeq x) {
+        int d = delta.length - 1;
+        double[] dx = new double[n];
+        for (int t = 0; t < n; ++t) {
+            double s = 0;
+            for (int i = 0; i <= d; ++i) {
+                s += delta[i] * x.get(t + d - i);
+            }
+            dx[t] = s;
+        }
+        return addDifferenced(DoubleSeq.of(dx));
+    }
+
+    private boolean addDifferenced(DoubleSeq dx) {
+        double[] v = new double[nl];
+        filter.apply(dx, DataBlock.of(v));
+        return addFiltered(v);
+    }
+
+    /**
+     * Adds a regression variable that has already been differenced and
+     * filtered
+     *
+     * @param v The filtered variable. It is modified by the decomposition
+     * and must not be re-used by the caller
+     * @return false if the new variable is collinear with the existing
+     * variables. The decomposition is then unchanged
+     */
+    boolean addFiltered(double[] v) {
+        double nv = norm(v);
+        int k = q.size();
+        double[] rc = new double[k + 1];
+        // Gram-Schmidt with re-orthogonalization
+        for (int pass = 0; pass < 2; ++pass) {
+            for (int j = 0; j < k; ++j) {
+                double[] qj = q.get(j);
+                double c = dot(qj, v);
+                for (int i = 0; i < nl; ++i) {
+                    v[i] -= c * qj[i];
+                }
+                rc[j] += c;
+            }
+        }
+        double rkk = norm(v);
+        if (rkk <= EPS * nv) {
+            return false;
+        }
+        for (int i = 0; i < nl; ++i) {
+            v[i] /= rkk;
+        }
+        rc[k] = rkk;
+        // e is orthogonal to the previous columns of Q, so that q'e = q'y
+        double c = dot(v, e);
+        for (int i = 0; i < nl; ++i) {
+            e[i] -= c * v[i];
+        }
+        q.add(v);
+        r.add(rc);
+        qy.add(c);
+        updateQe();
+        return true;
+    }
+
+    /**
+     * Removes the given regression variable
+     *
+     * @param pos The position of the variable (0-based, in the order of the
+     * variables)
+     */
+    void remove(int pos) {
+        r.remove(pos);
+        int k = q.size() - 1;
+        // R is now upper Hessenberg from column pos. We restore it with Givens
+        // rotations on the rows (j, j+1), which are also applied on Q and Q'y
+        for (int j = pos; j < k; ++j) {
+            double[] rj = r.get(j);
+            double a = rj[j], b = rj[j + 1];
+            double h = Math.hypot(a, b);
+            double cs = a / h, sn = b / h;
+            for (int l = j; l < k; ++l) {
+                double[] rl = r.get(l);
+                double x0 = rl[j], x1 = rl[j + 1];
+                rl[j] = cs * x0 + sn * x1;
+                rl[j + 1] = -sn * x0 + cs * x1;
+            }
+            double[] q0 = q.get(j), q1 = q.get(j + 1);
+            for (int i = 0; i < nl; ++i) {
+                double x0 = q0[i], x1 = q1[i];
+                q0[i] = cs * x0 + sn * x1;
+                q1[i] = -sn * x0 + cs * x1;
+            }
+            double y0 = qy.get(j), y1 = qy.get(j + 1);
+            qy.set(j, cs * y0 + sn * y1);
+            qy.set(j + 1, -sn * y0 + cs * y1);
+            double[] nrj = new double[j + 1];
+            System.arraycopy(rj, 0, nrj, 0, j + 1);
+            r.set(j, nrj);
+        }
+        // the last column of Q is now orthogonal to the regression variables
+        double[] ql = q.remove(k);
+        double c = qy.remove(k);
+        for (int i = 0; i < nl; ++i) {
+            e[i] += c * ql[i];
+        }
+        updateQe();
+    }
+
+    private void updateQe() {
+        int k = q.size();
+        double[] cqe = new double[k];
+        for (int j = 0; j < k; ++j) {
+            cqe[j] = dot(q.get(j), e);
+        }
+        qe = cqe;
+    }
+
+    /**
+     * T-Stat of a new (filtered) regression variable, in the model extended
+     * with that variable. The variable is projected on the orthogonal
+     * complement of the current variables (x - QQ'x), so that the t-stat
+     * takes into account its correlation with the current variables. The
+     * variable is only known through its cross-products, which allows the
+     * use of cached (shifted) regressors. The decomposition is not modified,
+     * so that the method can be called concurrently
+     *
+     * @param xx Sum of squares of the filtered variable
+     * @param xdot Cross-product of the filtered variable with a filtered
+     * series (of length getFilteredLength)
+     * @param sig Standard deviation of the residuals
+     * @return 0 if the variable is (nearly) collinear with the current
+     * variables
+     */
+    double tstat(double xx, ToDoubleFunction<DoubleSeq> xdot, double sig) {
+        int k = q.size();
+        // x'(I-QQ')x and x'(I-QQ')e
+        double sxx = xx, sxe = xdot.applyAsDouble(DoubleSeq.of(e));
+        for (int j = 0; j < k; ++j) {
+            double c = xdot.applyAsDouble(DoubleSeq.of(q.get(j)));
+            sxx -= c * c;
+            sxe -= c * qe[j];
+        }
+        if (sxx <= EPS * xx) {
+            return 0;
+        }
+        return sxe / (sig * Math.sqrt(sxx));
+    }
+
+    /**
+     * Generalized least squares estimates of the regression coefficients
+     *
+     * @return
+     */
+    double[] coefficients() {
+        int k = q.size();
+        double[] b = new double[k];
+        for (int i = k - 1; i >= 0; --i) {
+            double s = qy.get(i);
+            for (int j = i + 1; j < k; ++j) {
+                s -= r.get(j)[i] * b[j];
+            }
+            b[i] = s / r.get(i)[i];
+        }
+        return b;
+    }
+
+    /**
+     * T-Stats of the regression coefficients
+     *
+     * @param unbiased True if the variance is corrected for the degrees of
+     * freedom
+     * @return
+     */
+    double[] tstats(boolean unbiased) {
+        int k = q.size();
+        double[] b = coefficients();
+        double sig2 = ssq() / (unbiased ? n - k : n);
+        // diagonal of (R'R)^-1 = sum of the squares of the rows of R^-1
+        double[] v = new double[k];
+        double[] z = new double[k];
+        for (int c = 0; c < k; ++c) {
+            // column c of R^-1
+            for (int i = c; i >= 0; --i) {
+                double s = i == c ? 1 : 0;
+                for (int j = i + 1; j <= c; ++j) {
+                    s -= r.get(j)[i] * z[j];
+                }
+                z[i] = s / r.get(i)[i];
+                v[i] += z[i] * z[i];
+            }
+        }
+        for (int i = 0; i < k; ++i) {
+            b[i] /= Math.sqrt(v[i] * sig2);
+        }
+        return b;
+    }
+
+    private static double dot(double[] a, double[] b) {
+        double s = 0;
+        for (int i = 0; i < a.length; ++i) {
+            s += a[i] * b[i];
+        }
+        return s;
+    }
+
+    private static double norm(double[] a) {
+        return Math.sqrt(dot(a, a));
+    }
+}
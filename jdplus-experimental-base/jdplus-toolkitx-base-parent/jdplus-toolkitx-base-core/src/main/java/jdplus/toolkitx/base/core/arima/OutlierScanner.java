@@ -0,0 +1,53 @@
+/*
+ * Copyright 2026 JDemetra+.
+ * Licensed under the EUPL, Version 1.2 or – as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ *      https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package jdplus.toolkitx.base.core.arima;
+
+import jdplus.toolkit.base.core.arima.IArimaModel;
+import jdplus.toolkit.base.core.math.matrices.FastMatrix;
+import jdplus.toolkit.base.core.regarima.RegArimaModel;
+
+/**
+ * Computation of the t-stats of the candidate outliers, used by the
+ * OutliersDetector in place of its single outlier detector
+ *
+ * @author Jean Palate
+ * @param <T>
+ */
+interface OutlierScanner<T extends IArimaModel> {
+
+    void prepare(int n);
+
+    void setBounds(int start, int end);
+
+    void exclude(int pos, int type);
+
+    void allow(int pos, int type);
+
+    boolean process(RegArimaModel<T> regarima);
+
+    double getMaxTStat();
+
+    int getMaxOutlierPosition();
+
+    int getMaxOutlierType();
+
+    /**
+     * T-Stats of all the candidates (new matrix)
+     *
+     * @return
+     */
+    FastMatrix getT();
+}
@@ -24,14 +24,23 @@ import jdplus.toolkit.base.core.regarima.RegArimaModel;
 import jdplus.toolkit.base.core.regarima.outlier.SingleOutlierDetector;
 import jdplus.toolkit.base.core.sarima.SarimaModel;
 import jdplus.toolkit.base.core.modelling.regression.IOutlierFactory;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
 import jdplus.toolkit.base.core.arima.estimation.IArimaMapping;
 import jdplus.toolkit.base.core.math.matrices.FastMatrix;
 import jdplus.toolkit.base.core.regarima.ami.GenericOutliersDetection;
 import jdplus.toolkit.base.core.regarima.IRegArimaComputer;
+import jdplus.toolkit.base.core.stats.RobustStandardDeviationComputer;
 import jdplus.toolkitx.base.api.processing.IProcessingHook.HookInformation;
 import jdplus.toolkitx.base.api.processing.IProcessingHookProvider;
 import jdplus.toolkitx.base.api.processing.ProcessingHookProvider;
+import jdplus.toolkitx.base.core.jfr.BackwardEliminationEvent;
+import jdplus.toolkitx.base.core.jfr.EstimationEvent;
+import jdplus.toolkitx.base.core.jfr.OutliersRoundEvent;
+import jdplus.toolkitx.base.core.math.functions.CountingMapping;
 
 /**
  *
@@ -40,6 +49,13 @@ import jdplus.toolkitx.base.api.processing.ProcessingHookProvider;
 @Development(status = Development.Status.Preliminary)
 public class OutliersDetector implements GenericOutliersDetection<SarimaModel>, IProcessingHookProvider<OutliersDetector.OutlierInfo> {
     
+    /**
+     * Information sent to the hooks. The hooks are called for each outlier
+     * of a round, once the outliers of the round have been added and the
+     * model has been re-estimated (regarima is the new model). When a hook
+     * cancels the processing, the outliers of the round are kept and the
+     * search stops with that model (see isTruncated)
+     */
     @lombok.Value
     public static class OutlierInfo {
 
@@ -48,11 +64,24 @@ public class OutliersDetector implements GenericOutliersDetection<SarimaModel>,
         double tval;
         RegArimaModel<SarimaModel> regarima;
         boolean added;
+        /**
+         * Number of likelihood evaluations in the last estimation (0 for an
+         * incremental update)
+         */
+        int evaluations;
+        /**
+         * True if the last estimation started from the parameters of the
+         * previous round (see Builder.warmStart). The savings of the warm
+         * start are obtained by comparing the evaluations with the ones of a
+         * processing without warm start
+         */
+        boolean warmStarted;
     }
     
     static int DEF_MAXROUND = 100;
     static int DEF_MAXOUTLIERS = 50;
     static final double EPS = 1e-5;
+    private static final String JFR_NAME = "RegArima";
     
     public static Builder builder() {
         return new Builder();
@@ -62,10 +91,22 @@ public class OutliersDetector implements GenericOutliersDetection<SarimaModel>,
     public static class Builder {
         
         private double cv;
-        private IRegArimaComputer<SarimaModel> processor;
+        private IRegArimaComputer<SarimaModel> processor, forwardProcessor;
+        private boolean warmStart, multiple;
+        private int minSpacing = 1;
         private int maxOutliers = DEF_MAXOUTLIERS;
         private int maxRound = DEF_MAXROUND;
         private SingleOutlierDetector<SarimaModel> sod;
+        private boolean incremental, singlePassBackward;
+        private Supplier<SingleOutlierDetector<SarimaModel>> sodFactory;
+        private int nchunks;
+        private ForkJoinPool pool;
+        private Supplier<SingleOutlierDetector<SarimaModel>> exactFactory;
+        private int topk;
+        private double relativeThreshold;
+        private boolean cachedExact, cachedExactMad;
+        private Supplier<RobustStandardDeviationComputer> madFactory;
+        private Duration budget;
         
         private Builder() {
         }
@@ -74,6 +115,19 @@ public class OutliersDetector implements GenericOutliersDetection<SarimaModel>,
             this.sod = sod;
             return this;
         }
+
+        /**
+         * Factory of single outlier detectors, which is required for shared
+         * configurations (see configuration). If no single outlier detector
+         * has been specified, the factory is also used in build
+         *
+         * @param factory
+         * @return
+         */
+        public Builder singleOutlierDetectorFactory(Supplier<SingleOutlierDetector<SarimaModel>> factory) {
+            this.sodFactory = factory;
+            return this;
+        }
         
         public Builder criticalValue(double cv) {
             this.cv = cv;
@@ -85,6 +139,62 @@ public class OutliersDetector implements GenericOutliersDetection<SarimaModel>,
             return this;
         }
         
+        /**
+         * Processor used in the forward search. It should use a looser
+         * precision than the main processor, which is then only used for the
+         * final model.
+         *
+         * @param processor
+         * @return
+         */
+        public Builder forwardProcessor(IRegArimaComputer<SarimaModel> processor) {
+            this.forwardProcessor = processor;
+            return this;
+        }
+
+        /**
+         * In warm-start mode, the estimations in the forward search start from
+         * the parameters of the previous round (the Arima model is optimized
+         * and not re-initialized). Only the parameters are re-used: the
+         * processors (IRegArimaComputer) don't accept the curvature of a
+         * previous optimization
+         *
+         * @param warmStart
+         * @return
+         */
+        public Builder warmStart(boolean warmStart) {
+            this.warmStart = warmStart;
+            return this;
+        }
+
+        /**
+         * When multiple is true, all the candidates above the critical value
+         * are added in a single round (before the re-estimation of the model),
+         * provided that they are separated by at least minSpacing periods.
+         * The largest t-stats are considered first. The backward verification
+         * will remove the spurious outliers.
+         *
+         * @param multiple
+         * @return
+         */
+        public Builder multipleOutliersPerRound(boolean multiple) {
+            this.multiple = multiple;
+            return this;
+        }
+
+        /**
+         * Minimal distance between the positions of the outliers added in a
+         * single round (1 by default). Only used when multiple outliers can be
+         * added in a round
+         *
+         * @param minSpacing
+         * @return
+         */
+        public Builder minimumSpacing(int minSpacing) {
+            this.minSpacing = minSpacing;
+            return this;
+        }
+
         public Builder maxOutliers(int max) {
             this.maxOutliers = max;
             return this;
@@ -94,12 +204,254 @@ public class OutliersDetector implements GenericOutliersDetection<SarimaModel>,
             this.maxRound = max;
             return this;
         }
+
+        /**
+         * In incremental mode, the Arima parameters are kept fixed during the
+         * forward and the backward searches. The likelihood is then updated
+         * for each new (removed) outlier by means of an update (downdate) of
+         * its QR decomposition. The Arima parameters are re-estimated at the
+         * end of each search.
+         *
+         * @param incremental
+         * @return
+         */
+        public Builder incremental(boolean incremental) {
+            this.incremental = incremental;
+            return this;
+        }
+
+        /**
+         * In single-pass mode, the backward search removes all the non
+         * significant outliers (by increasing order of their |t|) with fixed
+         * Arima parameters: the t-stats are refreshed after each removal by
+         * means of a downdate of the QR decomposition. The model is then
+         * re-estimated only once, before the usual verification. Always used
+         * in incremental mode
+         *
+         * @param singlePass
+         * @return
+         */
+        public Builder singlePassBackward(boolean singlePass) {
+            this.singlePassBackward = singlePass;
+            return this;
+        }
+        
+        /**
+         * Parallel scoring of the candidate outliers. The positions are split
+         * in several contiguous blocks, scored in parallel; the scoring itself
+         * is unchanged:
+         * - with cachedExactScoring, the residuals and the regressors are
+         * filtered once by round and only the scoring loop is parallel;
+         * - otherwise, each block is scored by its own single outlier
+         * detector, created by the factory (see singleOutlierDetectorFactory),
+         * which is then required.
+         * The results are identical to the sequential scoring. Ignored with
+         * the hybrid scoring.
+         *
+         * @param nchunks Number of blocks (no parallel processing if smaller
+         * than 2)
+         * @return
+         */
+        public Builder parallelScoring(int nchunks) {
+            this.nchunks = nchunks;
+            return this;
+        }
+
+        /**
+         * Two-stage scoring of the candidate outliers. All the candidates are
+         * screened with the main (fast) single outlier detector. The exact
+         * t-stats are then computed only for the top-k candidates and for the
+         * candidates whose approximate |t| is larger than
+         * relativeThreshold*cv. Takes precedence over the parallel scoring
+         *
+         * @param exactFactory Creates the detectors used for the exact
+         * t-stats. They must use the same outlier factories as the main
+         * detector
+         * @param topk Number of the most significant candidates that are
+         * always verified
+         * @param relativeThreshold Reduced threshold, relatively to the
+         * critical value (for instance 0.8)
+         * @return
+         */
+        public Builder hybridScoring(Supplier<SingleOutlierDetector<SarimaModel>> exactFactory, int topk, double relativeThreshold) {
+            this.exactFactory = exactFactory;
+            this.topk = topk;
+            this.relativeThreshold = relativeThreshold;
+            return this;
+        }
+
+        /**
+         * Exact scoring of the candidate outliers, with a cache of the
+         * filtered regressors (Chandrasekhar filter). For each outlier type,
+         * the regressor is filtered once for the positions after the steady
+         * state of the filter; only the positions near the beginning of the
+         * series are filtered individually. The cache is re-used while the Arima parameters don't
+         * change. The main single outlier detector provides the outlier
+         * factories; it also scores the models with missing values, which are
+         * not handled by the cache. See also parallelScoring
+         *
+         * @param mad Robust estimation of the standard deviation
+         * @return
+         */
+        public Builder cachedExactScoring(boolean mad) {
+            this.cachedExact = true;
+            this.cachedExactMad = mad;
+            return this;
+        }
+
+        /**
+         * Computer of the robust standard deviation used in the cached exact
+         * scoring (RobustStandardDeviationComputer.mad() by default). Each
+         * detector gets its own computer, which may keep a state between the
+         * rounds (see SelectionMadComputer)
+         *
+         * @param factory
+         * @return
+         */
+        public Builder madComputer(Supplier<RobustStandardDeviationComputer> factory) {
+            this.madFactory = factory;
+            return this;
+        }
+
+        /**
+         * Pool used in parallel scoring. The common pool is used by default
+         *
+         * @param pool
+         * @return
+         */
+        public Builder forkJoinPool(ForkJoinPool pool) {
+            this.pool = pool;
+            return this;
+        }
+        
+        /**
+         * Maximum duration of the processing (no limit by default). When the
+         * budget is exhausted, the search is stopped and the detector keeps
+         * the last estimated model (see isTruncated). The budget is checked
+         * between the estimations, so that the actual duration can exceed it
+         * by the duration of one estimation.
+         *
+         * @param budget
+         * @return
+         */
+        public Builder timeBudget(Duration budget) {
+            this.budget = budget;
+            return this;
+        }
         
         public OutliersDetector build() {
-            return new OutliersDetector(sod, cv, processor, maxRound, maxOutliers);
+            return settings().create(sod == null && sodFactory != null ? sodFactory.get() : sod);
+        }
+
+        /**
+         * Immutable configuration, which can be shared between threads. The
+         * single outlier detectors must be provided by a factory (see
+         * singleOutlierDetectorFactory) and the processors
+         * must be thread-safe.
+         *
+         * @return
+         */
+        public Configuration configuration() {
+            if (sodFactory == null) {
+                throw new IllegalStateException("A factory of single outlier detectors is required");
+            }
+            return settings();
+        }
+
+        private Configuration settings() {
+            return new Configuration(sodFactory, nchunks, pool, exactFactory, topk, relativeThreshold, cachedExact, cachedExactMad, madFactory, cv, processor, forwardProcessor, warmStart,
+                    multiple ? Math.max(1, minSpacing) : 0, maxOutliers, maxRound, incremental,
+                    incremental || singlePassBackward, budget == null ? 0 : budget.toNanos());
+        }
+    }
+
+    /**
+     * Immutable configuration of the detector. Each call to create returns a
+     * new detector (execution context), which holds the state of the
+     * processing of one series. A configuration can serve concurrent
+     * requests; the detectors can't.
+     */
+    @lombok.Value
+    @lombok.AllArgsConstructor(access = lombok.AccessLevel.PRIVATE)
+    public static class Configuration {
+
+        Supplier<SingleOutlierDetector<SarimaModel>> singleOutlierDetectorFactory;
+        int chunksCount;
+        ForkJoinPool forkJoinPool;
+        Supplier<SingleOutlierDetector<SarimaModel>> exactDetectorFactory;
+        int topk;
+        double relativeThreshold;
+        boolean cachedExactScoring, cachedExactMad;
+        Supplier<RobustStandardDeviationComputer> madComputerFactory;
+        double criticalValue;
+        IRegArimaComputer<SarimaModel> processor, forwardProcessor;
+        boolean warmStart;
+        int minimumSpacing;
+        int maxOutliers, maxRound;
+        boolean incremental, singlePassBackward;
+        /**
+         * Time budget, in nanoseconds (0 for no limit)
+         */
+        long timeBudget;
+
+        /**
+         * Creates a new execution context
+         *
+         * @return
+         */
+        public OutliersDetector create() {
+            return create(singleOutlierDetectorFactory.get());
+        }
+
+        private OutliersDetector create(SingleOutlierDetector<SarimaModel> main) {
+            OutlierScanner<SarimaModel> scanner;
+            if (exactDetectorFactory != null) {
+                scanner = new HybridOutlierScanner<>(main, exactDetectorFactory.get(), topk, relativeThreshold * criticalValue);
+            } else if (cachedExactScoring) {
+                scanner = cachedScanner(main, cachedExactMad ? mad(madComputerFactory) : null, chunksCount, forkJoinPool);
+            } else if (chunksCount > 1) {
+                if (singleOutlierDetectorFactory == null) {
+                    throw new IllegalStateException("Parallel scoring requires a factory of single outlier detectors");
+                }
+                scanner = new ParallelSingleOutlierScanner<>(main, singleOutlierDetectorFactory, chunksCount, forkJoinPool);
+            } else {
+                scanner = null;
+            }
+            return new OutliersDetector(main, scanner, criticalValue, processor, forwardProcessor,
+                    warmStart, minimumSpacing, maxOutliers, maxRound, incremental, singlePassBackward, timeBudget);
+        }
+
+        /**
+         * Processes a series in a new execution context, on the whole span of
+         * the series
+         *
+         * @param initialModel
+         * @param mapping
+         * @return The execution context, which contains the results
+         */
+        public OutliersDetector process(RegArimaModel<SarimaModel> initialModel, IArimaMapping<SarimaModel> mapping) {
+            OutliersDetector detector = create();
+            int n = initialModel.getObservationsCount();
+            detector.prepare(n);
+            detector.setBounds(0, n);
+            detector.process(initialModel, mapping);
+            return detector;
         }
     }
     
+    private static RobustStandardDeviationComputer mad(Supplier<RobustStandardDeviationComputer> factory) {
+        return factory == null ? RobustStandardDeviationComputer.mad() : factory.get();
+    }
+
+    /**
+     * The main detector scores the models with missing values
+     */
+    private static OutlierScanner<SarimaModel> cachedScanner(SingleOutlierDetector<SarimaModel> main, RobustStandardDeviationComputer mad, int nchunks, ForkJoinPool pool) {
+        IOutlierFactory[] factories = main.getOutliersFactories();
+        return nchunks > 1 ? new ParallelOutlierScanner<>(factories, mad, main, nchunks, pool)
+                : new CachedExactOutlierScanner<>(factories, mad, main);
+    }
+
     @lombok.experimental.Delegate
     private final ProcessingHookProvider<OutlierInfo> hooks = new ProcessingHookProvider<>();
     
@@ -107,50 +459,158 @@ public class OutliersDetector implements GenericOutliersDetection<SarimaModel>,
     private RegArimaModel<SarimaModel> regarima;
     private final ArrayList<int[]> outliers = new ArrayList<>(); // Outliers : (position, type)
     private final SingleOutlierDetector sod;
-    private final IRegArimaComputer<SarimaModel> processor;
+    private final OutlierScanner<SarimaModel> scanner;
+    private final IRegArimaComputer<SarimaModel> processor, forwardProcessor;
     private final double cv;
+    private final boolean incremental, singlePassBackward, warmStart;
+    private CountingMapping.Arima<SarimaModel> cmapping;
+    private boolean approximate;
+    private final int minSpacing;
+    private int lbound, ubound;
+    private IncrementalConcentratedLikelihood likelihood;
     private double[] tstats;
     private int round;
     private boolean changed;
     private FastMatrix initialTau;
+    private final long budget;
+    private long deadline;
+    private boolean truncated, fullSearch;
     
-    private OutliersDetector(final SingleOutlierDetector sod, final double cv, final IRegArimaComputer<SarimaModel> processor,
-            final int maxOutliers, final int maxRound) {
+    private OutliersDetector(final SingleOutlierDetector sod, final OutlierScanner<SarimaModel> scanner,
+            final double cv, final IRegArimaComputer<SarimaModel> processor,
+            final IRegArimaComputer<SarimaModel> forwardProcessor, final boolean warmStart, final int minSpacing,
+            final int maxOutliers, final int maxRound, final boolean incremental, final boolean singlePassBackward, final long budget) {
         this.sod = sod;
+        this.scanner = scanner;
         this.cv = cv;
         this.processor = processor;
+        this.forwardProcessor = forwardProcessor;
+        this.warmStart = warmStart;
+        this.minSpacing = minSpacing;
         this.maxOutliers = maxOutliers;
         this.maxRound = maxRound;
+        this.incremental = incremental;
+        this.singlePassBackward = singlePassBackward;
+        this.budget = budget;
     }
     
     @Override
     public boolean process(RegArimaModel<SarimaModel> initialModel, IArimaMapping<SarimaModel> mapping) {
         changed = false;
+        truncated = false;
+        fullSearch = true;
+        deadline = System.nanoTime() + budget;
         regarima = initialModel;
-        estimateModel(mapping, true);
-        execute(mapping);
+        cmapping = mapping == null ? null : new CountingMapping.Arima<>(mapping);
+        IArimaMapping<SarimaModel> cur = cmapping == null ? mapping : cmapping;
+        estimateModel(cur, true);
+        execute(cur);
+        return changed;
+    }
+
+    /**
+     * Re-detection for a new vintage of the series (new or revised
+     * observations at the end of the series). The outliers of the previous
+     * vintage are re-verified by means of a single estimation, which starts
+     * from the previous Arima parameters. The search of new outliers is then
+     * limited to the revision window ([revisionStart, end of the bounds[).
+     * If some previous outliers are no longer significant (or if the
+     * estimation fails), the detector falls back to a full search (see
+     * isFullSearch).
+     * The detector must have been prepared (prepare, setBounds) as for the
+     * usual processing. The outlier factories must be the same as in the
+     * previous vintage.
+     *
+     * @param initialModel The model without outliers
+     * @param mapping
+     * @param previousOutliers The outliers of the previous vintage (position,
+     * type)
+     * @param previousArima The Arima model of the previous vintage. If null,
+     * the Arima model of initialModel is used
+     * @param revisionStart The first new or revised observation
+     * @return
+     */
+    public boolean reprocess(RegArimaModel<SarimaModel> initialModel, IArimaMapping<SarimaModel> mapping,
+            int[][] previousOutliers, SarimaModel previousArima, int revisionStart) {
+        changed = false;
+        truncated = false;
+        fullSearch = false;
+        deadline = System.nanoTime() + budget;
+        regarima = previousArima == null ? initialModel : initialModel.toBuilder().arima(previousArima).build();
+        cmapping = mapping == null ? null : new CountingMapping.Arima<>(mapping);
+        IArimaMapping<SarimaModel> cur = cmapping == null ? mapping : cmapping;
+        for (int[] o : previousOutliers) {
+            if (o[0] >= lbound && o[0] < ubound && !isOutlier(o[0], o[1])) {
+                addNewOutlier(o[0], o[1]);
+            }
+        }
+        // re-verification of the previous outliers
+        boolean ok = estimateModel(cur, false);
+        if (ok) {
+            // false if the least significant outlier has been removed
+            ok = verifymodel();
+        }
+        if (!ok) {
+            fullSearch = true;
+            for (int[] o : outliers) {
+                allow(o[0], o[1]);
+            }
+            outliers.clear();
+            regarima = initialModel;
+            estimateModel(cur, true);
+            execute(cur);
+            return changed;
+        }
+        // search limited to the revision window
+        int lb = lbound, ub = ubound;
+        setBounds(Math.max(lb, Math.min(revisionStart, ub)), ub);
+        try {
+            execute(cur);
+        } finally {
+            setBounds(lb, ub);
+        }
         return changed;
     }
     
     @Override
     public void prepare(int n) {
         sod.prepare(n);
+        lbound = 0;
+        ubound = n;
+        if (scanner != null) {
+            scanner.prepare(n);
+        }
     }
     
     @Override
     public void setBounds(int start, int end) {
         sod.setBounds(start, end);
+        lbound = start;
+        ubound = end;
+        if (scanner != null) {
+            scanner.setBounds(start, end);
+        }
     }
     
     @Override
     public void exclude(int pos, int type) {
         sod.exclude(pos, type);
+        if (scanner != null) {
+            scanner.exclude(pos, type);
+        }
+    }
+    
+    private void allow(int pos, int type) {
+        sod.allow(pos, type);
+        if (scanner != null) {
+            scanner.allow(pos, type);
+        }
     }
     
     public void exclude(int pos) {
         int n = this.getOutlierFactoriesCount();
         for (int i = 0; i < n; ++i) {
-            sod.exclude(pos, i);
+            exclude(pos, i);
         }
     }
 
@@ -182,18 +642,21 @@ public class OutliersDetector implements GenericOutliersDetection<SarimaModel>,
     private void addNewOutlier(int pos, int type) {
         int[] o = new int[]{pos, type};
         outliers.add(o);
-        double[] xo = new double[regarima.getObservationsCount()];
-        DataBlock XO = DataBlock.of(xo);
+        DataBlock XO = DataBlock.make(regarima.getObservationsCount());
         sod.getOutlierFactory(type).fill(pos, XO);
         regarima = regarima.toBuilder().addX(XO).build();
-        sod.exclude(pos, type);
+        exclude(pos, type);
         changed = true;
+        if (likelihood != null && !likelihood.add(XO)) {
+            // collinear regressors. Handled by the full estimation
+            likelihood = null;
+        }
     }
     
     public void addOutlier(int pos, int type) {
         int[] o = new int[]{pos, type};
         outliers.add(o);
-        sod.exclude(pos, type);
+        exclude(pos, type);
         
     }
 
@@ -203,48 +666,195 @@ public class OutliersDetector implements GenericOutliersDetection<SarimaModel>,
     public void clear() {
         outliers.clear();
         regarima = null;
+        likelihood = null;
     }
     
     private void execute(IArimaMapping<SarimaModel> mapping) {
         double max;
         round = 0;
+        if (incremental) {
+            likelihood = IncrementalConcentratedLikelihood.of(regarima);
+        }
         
         do {
-            if (!sod.process(regarima)) {
+            OutliersRoundEvent revent = new OutliersRoundEvent();
+            revent.begin();
+            if (mustStop() || !scan()) {
                 break;
             }
             if (round == 0) {
-                initialTau = sod.getT().deepClone();
+                initialTau = scanner != null ? scanner.getT() : sod.getT().deepClone();
                 initialTau.apply(x -> x * x);
             }
-            max = sod.getMaxTStat();
+            max = scanner != null ? scanner.getMaxTStat() : sod.getMaxTStat();
             if (Math.abs(max) > cv) {
                 round++;
-                int type = sod.getMaxOutlierType();
-                int pos = sod.getMaxOutlierPosition();
-                addNewOutlier(pos, type);
-                if (!estimateModel(mapping, true)) {
-                    removeOutlier(outliers.size() - 1);
+                int type = scanner != null ? scanner.getMaxOutlierType() : sod.getMaxOutlierType();
+                int pos = scanner != null ? scanner.getMaxOutlierPosition() : sod.getMaxOutlierPosition();
+                double[][] selection = minSpacing > 0 ? selectOutliers() : null;
+                if (selection == null || selection.length == 0) {
+                    selection = new double[][]{{pos, type, max}};
+                }
+                for (double[] o : selection) {
+                    addNewOutlier((int) o[0], (int) o[1]);
+                }
+                if (!(likelihood != null ? updateModel() : forwardEstimation(mapping))) {
+                    for (int i = 0; i < selection.length; ++i) {
+                        removeOutlier(outliers.size() - 1);
+                    }
                     estimateModel(mapping, false);
-                    sod.process(regarima);
+                    scan();
                     break;
                 }
                 if (hooks.hasHooks()) {
-                    OutlierInfo info = new OutlierInfo(type, pos, max, regarima, true);                    
-                    hooks.processHooks(new HookInformation<>(info), false);
+                    boolean incr = likelihood != null;
+                    int nevals = incr || cmapping == null ? 0 : cmapping.getCount();
+                    for (double[] o : selection) {
+                        OutlierInfo info = new OutlierInfo((int) o[1], (int) o[0], o[2], regarima, true, nevals, warmStart && !incr);
+                        if (!notify(info)) {
+                            break;
+                        }
+                    }
+                }
+                if (revent.shouldCommit()) {
+                    revent.detector = JFR_NAME;
+                    revent.round = round;
+                    revent.position = (int) selection[0][0];
+                    revent.type = sod.getOutlierFactory((int) selection[0][1]).getCode();
+                    revent.tstat = selection[0][2];
+                    revent.added = selection.length;
+                    revent.outliers = outliers.size();
+                    revent.commit();
                 }
             } else {
                 break;// no outliers to remove...
             }
         } while (round < maxRound && outliers.size() < maxOutliers);
         
+        if (truncated) {
+            // the current model (last estimation) is kept as is
+            likelihood = null;
+            return;
+        }
+        if (likelihood != null) {
+            // the Arima parameters have not been re-estimated during the search
+            likelihood = null;
+            if (!outliers.isEmpty()) {
+                estimateModel(mapping, true);
+            }
+        } else if (approximate) {
+            // final precision for the last model
+            estimateModel(processor, mapping, false);
+        }
+        if (singlePassBackward && !outliers.isEmpty()) {
+            // single-pass elimination, with fixed Arima parameters
+            likelihood = IncrementalConcentratedLikelihood.of(regarima);
+            if (likelihood != null) {
+                boolean removed = false;
+                while (!verifymodel()) {
+                    removed = true;
+                    updateModel();
+                }
+                likelihood = null;
+                if (removed) {
+                    estimateModel(mapping, false);
+                }
+            }
+        }
         
-        while (!verifymodel()) {
+        while (!mustStop() && !verifymodel()) {
             if (!estimateModel(mapping, false)) {
                 break;
             }
         }
     }
+
+    /**
+     * Calls the hooks, which can cancel the processing
+     *
+     * @param info
+     * @return false if the processing has been cancelled
+     */
+    private boolean notify(OutlierInfo info) {
+        HookInformation<OutlierInfo> hinfo = new HookInformation<>(info);
+        hooks.processHooks(hinfo, true);
+        if (hinfo.isCancel()) {
+            truncated = true;
+        }
+        return !truncated;
+    }
+
+    /**
+     * Checks the time budget
+     *
+     * @return true if the processing must be stopped (time budget exhausted
+     * or processing cancelled)
+     */
+    private boolean mustStop() {
+        if (!truncated && budget > 0 && System.nanoTime() - deadline >= 0) {
+            truncated = true;
+        }
+        return truncated;
+    }
+    
+    /**
+     * Selects all the candidates above the critical value (at most one by
+     * position), by decreasing order of their |t|, such that the distance
+     * between the selected positions is at least minSpacing
+     *
+     * @return The selected outliers (position, type, t-stat)
+     */
+    private double[][] selectOutliers() {
+        FastMatrix T = scanner != null ? scanner.getT() : sod.getT();
+        int nf = T.getColumnsCount();
+        List<double[]> candidates = new ArrayList<>();
+        for (int i = lbound; i < ubound; ++i) {
+            int jmax = -1;
+            double tmax = cv;
+            for (int j = 0; j < nf; ++j) {
+                double t = Math.abs(T.get(i, j));
+                if (t > tmax && !isOutlier(i, j)) {
+                    tmax = t;
+                    jmax = j;
+                }
+            }
+            if (jmax >= 0) {
+                candidates.add(new double[]{i, jmax, T.get(i, jmax)});
+            }
+        }
+        candidates.sort((a, b) -> Double.compare(Math.abs(b[2]), Math.abs(a[2])));
+        int nmax = maxOutliers - outliers.size();
+        List<double[]> selection = new ArrayList<>();
+        for (double[] c : candidates) {
+            if (selection.size() >= nmax) {
+                break;
+            }
+            boolean ok = true;
+            for (double[] o : selection) {
+                if (Math.abs(o[0] - c[0]) < minSpacing) {
+                    ok = false;
+                    break;
+                }
+            }
+            if (ok) {
+                selection.add(c);
+            }
+        }
+        return selection.toArray(double[][]::new);
+    }
+
+    private boolean isOutlier(int pos, int type) {
+        for (int[] o : outliers) {
+            if (o[0] == pos && o[1] == type) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean scan() {
+        return scanner != null ? scanner.process(regarima) : sod.process(regarima);
+    }
     
     public double getCritivalValue() {
         return cv;
@@ -255,11 +865,35 @@ public class OutliersDetector implements GenericOutliersDetection<SarimaModel>,
     }
     
     public FastMatrix finalTau(){
-        FastMatrix finalTau=sod.getT();
+        FastMatrix finalTau=scanner != null ? scanner.getT() : sod.getT();
         finalTau.apply((x-> Double.isNaN(x) ? 0 : x*x));
         return finalTau;
     }
     
+    /**
+     * Indicates that the last processing has been stopped before its normal
+     * end, because the time budget was exhausted or because a hook cancelled
+     * it. The model is then the last estimated one: it contains the outliers
+     * accepted so far (not necessarily verified) and its parameters may have
+     * been estimated with the precision of the forward processor
+     *
+     * @return
+     */
+    public boolean isTruncated() {
+        return truncated;
+    }
+    
+    /**
+     * Indicates that the last processing was a full search: always true after
+     * process, true after reprocess when the previous outliers couldn't be
+     * re-used
+     *
+     * @return
+     */
+    public boolean isFullSearch() {
+        return fullSearch;
+    }
+    
     public int getMaxIter() {
         return maxRound;
     }
@@ -289,19 +923,79 @@ public class OutliersDetector implements GenericOutliersDetection<SarimaModel>,
     }
     
     private boolean estimateModel(IArimaMapping<SarimaModel> mapping, boolean full) {
+        return estimateModel(processor, mapping, full);
+    }
+
+    /**
+     * Estimation in the forward search
+     *
+     * @param mapping
+     * @return
+     */
+    private boolean forwardEstimation(IArimaMapping<SarimaModel> mapping) {
+        return estimateModel(forwardProcessor == null ? processor : forwardProcessor, mapping, !warmStart);
+    }
+
+    private boolean estimateModel(IRegArimaComputer<SarimaModel> proc, IArimaMapping<SarimaModel> mapping, boolean full) {
+        EstimationEvent event = new EstimationEvent();
+        event.begin();
+        boolean ok = estimate(proc, mapping, full);
+        if (event.shouldCommit()) {
+            event.detector = JFR_NAME;
+            event.method = full ? "Full" : "Optimize";
+            event.evaluations = cmapping == null ? -1 : cmapping.getCount();
+            event.variables = regarima.getVariablesCount();
+            event.outliers = outliers.size();
+            event.success = ok;
+            event.commit();
+        }
+        return ok;
+    }
+
+    private boolean estimate(IRegArimaComputer<SarimaModel> proc, IArimaMapping<SarimaModel> mapping, boolean full) {
         try {
-            RegArimaEstimation<SarimaModel> estimation = full ? processor.process(regarima, mapping) : processor.optimize(regarima, mapping);
+            if (cmapping != null) {
+                cmapping.reset();
+            }
+            RegArimaEstimation<SarimaModel> estimation = full ? proc.process(regarima, mapping) : proc.optimize(regarima, mapping);
             if (estimation == null) {
                 return false;
             }
+            approximate = proc != processor;
             regarima = estimation.getModel();
             tstats = estimation.getConcentratedLikelihood().tstats(0, false);
+            likelihood = null;
             return true;
         } catch (Exception err) {
             return false;
         }
     }
 
+    /**
+     * Refreshes the t-stats from the incremental likelihood (Arima parameters
+     * unchanged)
+     *
+     * @return
+     */
+    private boolean updateModel() {
+        if (likelihood == null) {
+            return false;
+        }
+        EstimationEvent event = new EstimationEvent();
+        event.begin();
+        tstats = likelihood.tstats(false);
+        if (event.shouldCommit()) {
+            event.detector = JFR_NAME;
+            event.method = "Incremental";
+            event.evaluations = 0;
+            event.variables = likelihood.nx();
+            event.outliers = outliers.size();
+            event.success = true;
+            event.commit();
+        }
+        return true;
+    }
+
     /**
      *
      * @return
@@ -312,6 +1006,9 @@ public class OutliersDetector implements GenericOutliersDetection<SarimaModel>,
     
     private void removeOutlier(int idx) {
         int opos = regarima.getXCount() - outliers.size() + idx;
+        if (likelihood != null) {
+            likelihood.remove(regarima.getVariablesCount() - outliers.size() + idx);
+        }
         regarima = regarima.toBuilder().removeX(opos).build();
         outliers.remove(idx);
         changed = true;
@@ -336,7 +1033,16 @@ public class OutliersDetector implements GenericOutliersDetection<SarimaModel>,
             return true;
         }
         int[] toremove = outliers.get(imin);
-        sod.allow(toremove[0], toremove[1]);
+        BackwardEliminationEvent event = new BackwardEliminationEvent();
+        if (event.shouldCommit()) {
+            event.detector = JFR_NAME;
+            event.position = toremove[0];
+            event.type = sod.getOutlierFactory(toremove[1]).getCode();
+            event.tstat = tstats[nx0 + imin];
+            event.outliers = outliers.size() - 1;
+            event.commit();
+        }
+        allow(toremove[0], toremove[1]);
         removeOutlier(imin);
         return false;
     }
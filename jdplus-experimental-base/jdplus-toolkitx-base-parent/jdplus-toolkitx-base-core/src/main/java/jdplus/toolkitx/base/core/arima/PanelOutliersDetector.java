@@ -0,0 +1,428 @@
+/*
+ * Copyright 2026 JDemetra+.
+ * Licensed under the EUPL, Version 1.2 or – as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ *      https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package jdplus.toolkitx.base.core.arima;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Supplier;
+import jdplus.toolkit.base.api.data.DoubleSeq;
+import jdplus.toolkit.base.core.arima.IArimaModel;
+import jdplus.toolkit.base.core.arima.estimation.ArmaFilter;
+import jdplus.toolkit.base.core.math.matrices.FastMatrix;
+import jdplus.toolkit.base.core.modelling.regression.IOutlierFactory;
+import jdplus.toolkit.base.core.regarima.RegArimaModel;
+import jdplus.toolkit.base.core.regarima.RegArmaModel;
+import jdplus.toolkit.base.core.sarima.SarimaModel;
+import jdplus.toolkit.base.core.stats.RobustStandardDeviationComputer;
+import nbbrd.design.BuilderPattern;
+import nbbrd.design.Development;
+
+/**
+ * Outliers detection in a panel of series (for instance a regional
+ * breakdown) that share the same Arima model, with fixed parameters. The
+ * filtered outlier regressors are computed once for the whole panel and the
+ * filter (see FilteredPatternCache) is prepared once for the whole panel, so
+ * that no model is built or estimated for the individual series. The series are split in
+ * blocks, processed in parallel. Each series is searched by means of a
+ * forward selection (largest |t| above the critical value), followed by a
+ * backward elimination, with incremental updates of the concentrated
+ * likelihood.
+ * Optionally, the outliers found at the same position (and of the same type)
+ * in several series are flagged as common outliers.
+ * All the series must have the same length, without missing values.
+ *
+ * @author Jean Palate
+ */
+@Development(status = Development.Status.Preliminary)
+public class PanelOutliersDetector {
+
+    public static final int DEF_MAXOUTLIERS = 30;
+
+    /**
+     * Outliers of a series
+     */
+    @lombok.Value
+    public static class SeriesOutliers {
+
+        /**
+         * Outliers (position, type)
+         */
+        int[][] outliers;
+        /**
+         * T-stats of the outliers (same order)
+         */
+        double[] tstats;
+    }
+
+    /**
+     * Outlier found in several series
+     */
+    @lombok.Value
+    public static class CommonOutlier {
+
+        int position, type;
+        /**
+         * Indexes of the series that contain the outlier
+         */
+        int[] series;
+    }
+
+    @BuilderPattern(PanelOutliersDetector.class)
+    public static class Builder {
+
+        private SarimaModel arima;
+        private IOutlierFactory[] factories;
+        private boolean mean;
+        private double cv;
+        private int maxOutliers = DEF_MAXOUTLIERS;
+        private boolean mad = true;
+        private Supplier<RobustStandardDeviationComputer> madFactory;
+        private int minCommon;
+        private ForkJoinPool pool;
+
+        private Builder() {
+        }
+
+        /**
+         * The Arima model shared by the series. Its parameters are not
+         * re-estimated
+         *
+         * @param arima
+         * @return
+         */
+        public Builder arima(SarimaModel arima) {
+            this.arima = arima;
+            return this;
+        }
+
+        public Builder outlierFactories(IOutlierFactory... factories) {
+            this.factories = factories.clone();
+            return this;
+        }
+
+        public Builder meanCorrection(boolean mean) {
+            this.mean = mean;
+            return this;
+        }
+
+        /**
+         * Critical value of the t-stats (required, strictly positive)
+         *
+         * @param cv
+         * @return
+         */
+        public Builder criticalValue(double cv) {
+            this.cv = cv;
+            return this;
+        }
+
+        public Builder maxOutliers(int max) {
+            this.maxOutliers = max;
+            return this;
+        }
+
+        /**
+         * Robust estimation of the standard deviation of the residuals (true
+         * by default)
+         *
+         * @param mad
+         * @return
+         */
+        public Builder mad(boolean mad) {
+            this.mad = mad;
+            return this;
+        }
+
+        /**
+         * Computer of the robust standard deviation, used when mad is true
+         * (RobustStandardDeviationComputer.mad() by default). Each block of
+         * series gets its own computer
+         *
+         * @param factory
+         * @return
+         */
+        public Builder madComputer(Supplier<RobustStandardDeviationComputer> factory) {
+            this.madFactory = factory;
+            return this;
+        }
+
+        /**
+         * Flags the outliers that are found in at least minSeries series (no
+         * flag by default)
+         *
+         * @param minSeries
+         * @return
+         */
+        public Builder commonOutliers(int minSeries) {
+            this.minCommon = minSeries;
+            return this;
+        }
+
+        /**
+         * Pool used for the parallel processing of the series. The common
+         * pool is used by default
+         *
+         * @param pool
+         * @return
+         */
+        public Builder forkJoinPool(ForkJoinPool pool) {
+            this.pool = pool;
+            return this;
+        }
+
+        public PanelOutliersDetector build() {
+            if (arima == null || factories == null || factories.length == 0) {
+                throw new IllegalStateException("The Arima model and the outlier factories are required");
+            }
+            if (cv <= 0) {
+                throw new IllegalStateException("The critical value must be strictly positive");
+            }
+            return new PanelOutliersDetector(arima, factories, mean, cv, maxOutliers, mad, madFactory, minCommon,
+                    pool == null ? ForkJoinPool.commonPool() : pool);
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    private final SarimaModel arima;
+    private final IOutlierFactory[] factories;
+    private final boolean mean;
+    private final double cv;
+    private final int maxOutliers;
+    private final boolean mad;
+    private final Supplier<RobustStandardDeviationComputer> madFactory;
+    private final int minCommon;
+    private final ForkJoinPool pool;
+    private SeriesOutliers[] results;
+    private final List<CommonOutlier> common = new ArrayList<>();
+    // panel context, built once
+    private FilteredPatternCache cache;
+    private IArimaModel arma;
+    private double[] delta;
+    private int n, nl;
+
+    private PanelOutliersDetector(SarimaModel arima, IOutlierFactory[] factories, boolean mean, double cv, int maxOutliers,
+            boolean mad, Supplier<RobustStandardDeviationComputer> madFactory, int minCommon, ForkJoinPool pool) {
+        this.arima = arima;
+        this.factories = factories;
+        this.mean = mean;
+        this.cv = cv;
+        this.maxOutliers = maxOutliers;
+        this.mad = mad;
+        this.madFactory = madFactory;
+        this.minCommon = minCommon;
+        this.pool = pool;
+    }
+
+    /**
+     * Processes the panel
+     *
+     * @param series The series. They must have the same length
+     * @param X Regression variables common to all the series. May be null
+     * @return false if the panel is empty
+     */
+    public boolean process(List<DoubleSeq> series, FastMatrix X) {
+        results = null;
+        common.clear();
+        int m = series.size();
+        if (m == 0) {
+            return false;
+        }
+        n = series.get(0).length();
+        for (DoubleSeq s : series) {
+            if (s.length() != n) {
+                throw new IllegalArgumentException("The series of the panel must have the same length");
+            }
+        }
+        // the stationary model doesn't depend on the data
+        RegArmaModel<SarimaModel> dm = model(DoubleSeq.of(new double[n]), null).differencedModel();
+        arma = dm.getArma();
+        delta = arima.getNonStationaryAr().coefficients().toArray();
+        cache = new FilteredPatternCache(arma, delta, n, factories);
+        cache.initialize();
+        nl = cache.getFilteredLength();
+
+        results = new SeriesOutliers[m];
+        int nchunks = Math.max(1, Math.min(pool.getParallelism(), m));
+        if (nchunks == 1) {
+            process(series, X, 0, m);
+        } else {
+            List<ForkJoinTask<?>> tasks = new ArrayList<>(nchunks);
+            for (int c = 0; c < nchunks; ++c) {
+                int start = c * m / nchunks, end = (c + 1) * m / nchunks;
+                tasks.add(pool.submit(() -> process(series, X, start, end)));
+            }
+            for (ForkJoinTask<?> task : tasks) {
+                task.join();
+            }
+        }
+        if (minCommon > 0) {
+            flagCommonOutliers();
+        }
+        return true;
+    }
+
+    /**
+     * Outliers of each series (same order as the panel)
+     *
+     * @return The outliers of the series that couldn't be processed (missing
+     * values, collinear regression variables) are null
+     */
+    public SeriesOutliers[] getResults() {
+        return results == null ? null : results.clone();
+    }
+
+    /**
+     * Outliers found in at least minSeries series (see commonOutliers),
+     * ordered by position
+     *
+     * @return
+     */
+    public List<CommonOutlier> getCommonOutliers() {
+        return List.copyOf(common);
+    }
+
+    private RegArimaModel<SarimaModel> model(DoubleSeq y, FastMatrix X) {
+        RegArimaModel.Builder<SarimaModel> builder = RegArimaModel.<SarimaModel>builder()
+                .y(y)
+                .arima(arima)
+                .meanCorrection(mean);
+        if (X != null) {
+            builder.addX(X);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Processes the series [start, end[ with the filter of the cache (which
+     * is thread-safe)
+     */
+    private void process(List<DoubleSeq> series, FastMatrix X, int start, int end) {
+        ArmaFilter filter = cache.getFilter();
+        RobustStandardDeviationComputer sd = mad ? (madFactory == null ? RobustStandardDeviationComputer.mad() : madFactory.get()) : null;
+        for (int i = start; i < end; ++i) {
+            results[i] = search(series.get(i), X, filter, sd);
+        }
+    }
+
+    private SeriesOutliers search(DoubleSeq y, FastMatrix X, ArmaFilter filter, RobustStandardDeviationComputer sd) {
+        RegArimaModel<SarimaModel> regarima = model(y, X);
+        if (regarima.getMissingValuesCount() > 0) {
+            return null;
+        }
+        RegArmaModel<SarimaModel> dm = regarima.differencedModel();
+        IncrementalConcentratedLikelihood ll = IncrementalConcentratedLikelihood.of(filter, nl, delta, dm.getY(), dm.getX());
+        if (ll == null) {
+            return null;
+        }
+        int nx0 = ll.nx(), nf = factories.length;
+        boolean[] excluded = new boolean[n * nf];
+        List<int[]> outliers = new ArrayList<>();
+        // forward selection
+        while (outliers.size() < maxOutliers) {
+            DoubleSeq e = ll.residuals();
+            double sig = sd == null ? Math.sqrt(e.ssq() / e.length()) : sd.compute(e);
+            if (sig <= 0) {
+                break;
+            }
+            double tmax = 0;
+            int pmax = -1, tymax = -1;
+            for (int pos = 0; pos < n; ++pos) {
+                for (int type = 0; type < nf; ++type) {
+                    if (excluded[pos * nf + type]) {
+                        continue;
+                    }
+                    double sxx = cache.ssq(type, pos);
+                    if (sxx <= 0) {
+                        continue;
+                    }
+                    int ctype = type, cpos = pos;
+                    double t = ll.tstat(sxx, s -> cache.dot(ctype, cpos, s), sig);
+                    if (Math.abs(t) > Math.abs(tmax)) {
+                        tmax = t;
+                        pmax = pos;
+                        tymax = type;
+                    }
+                }
+            }
+            if (pmax < 0 || Math.abs(tmax) < cv) {
+                break;
+            }
+            excluded[pmax * nf + tymax] = true;
+            if (ll.addFiltered(cache.regressor(tymax, pmax))) {
+                outliers.add(new int[]{pmax, tymax});
+            }
+        }
+        // backward elimination
+        double[] t = ll.tstats(true);
+        while (!outliers.isEmpty()) {
+            int imin = -1;
+            double tmin = cv;
+            for (int i = 0; i < outliers.size(); ++i) {
+                double at = Math.abs(t[nx0 + i]);
+                if (at < tmin) {
+                    tmin = at;
+                    imin = i;
+                }
+            }
+            if (imin < 0) {
+                break;
+            }
+            ll.remove(nx0 + imin);
+            outliers.remove(imin);
+            t = ll.tstats(true);
+        }
+        double[] tstats = new double[outliers.size()];
+        System.arraycopy(t, nx0, tstats, 0, tstats.length);
+        return new SeriesOutliers(outliers.toArray(int[][]::new), tstats);
+    }
+
+    private void flagCommonOutliers() {
+        int nf = factories.length;
+        int[] counts = new int[n * nf];
+        for (SeriesOutliers rslt : results) {
+            if (rslt != null) {
+                for (int[] o : rslt.getOutliers()) {
+                    ++counts[o[0] * nf + o[1]];
+                }
+            }
+        }
+        for (int k = 0; k < counts.length; ++k) {
+            if (counts[k] >= minCommon) {
+                int[] s = new int[counts[k]];
+                for (int i = 0, j = 0; i < results.length; ++i) {
+                    if (results[i] != null && contains(results[i].getOutliers(), k / nf, k % nf)) {
+                        s[j++] = i;
+                    }
+                }
+                common.add(new CommonOutlier(k / nf, k % nf, s));
+            }
+        }
+    }
+
+    private static boolean contains(int[][] outliers, int pos, int type) {
+        for (int[] o : outliers) {
+            if (o[0] == pos && o[1] == type) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
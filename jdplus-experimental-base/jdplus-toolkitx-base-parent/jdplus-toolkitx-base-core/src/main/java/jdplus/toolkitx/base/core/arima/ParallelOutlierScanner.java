@@ -0,0 +1,88 @@
+/*
+ * Copyright 2026 JDemetra+.
+ * Licensed under the EUPL, Version 1.2 or – as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ *      https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package jdplus.toolkitx.base.core.arima;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import jdplus.toolkit.base.core.arima.IArimaModel;
+import jdplus.toolkit.base.core.modelling.regression.IOutlierFactory;
+import jdplus.toolkit.base.core.regarima.outlier.SingleOutlierDetector;
+import jdplus.toolkit.base.core.stats.RobustStandardDeviationComputer;
+import nbbrd.design.Development;
+
+/**
+ * Exact scoring of the outliers (see CachedExactOutlierScanner), where the
+ * positions are split in several contiguous blocks, scored in parallel. The
+ * filtered residuals, the standard deviation and the filtered regressors are
+ * computed once by round; only the scoring loop is parallel.
+ * The maxima of the blocks are reduced in the order of the positions, with
+ * the same rule as in the sequential scan (first maximum of |t|, positions
+ * first, then types), so that the results are identical to the results of
+ * CachedExactOutlierScanner, ties included.
+ *
+ * @author Jean Palate
+ * @param <T>
+ */
+@Development(status = Development.Status.Preliminary)
+class ParallelOutlierScanner<T extends IArimaModel> extends CachedExactOutlierScanner<T> {
+
+    private final int nchunks;
+    private final ForkJoinPool pool;
+
+    /**
+     *
+     * @param factories
+     * @param mad Robust estimation of the standard deviation of the
+     * residuals. If null, the usual estimation is used
+     * @param fallback Detector used (sequentially) for the models with missing
+     * values. May be null
+     * @param nchunks Number of blocks
+     * @param pool The pool used for the scoring. The common pool is used if
+     * null
+     */
+    ParallelOutlierScanner(IOutlierFactory[] factories, RobustStandardDeviationComputer mad, SingleOutlierDetector<T> fallback, int nchunks, ForkJoinPool pool) {
+        super(factories, mad, fallback);
+        this.nchunks = nchunks;
+        this.pool = pool == null ? ForkJoinPool.commonPool() : pool;
+    }
+
+    @Override
+    void search(IncrementalConcentratedLikelihood ll, double sig, int from, int to) {
+        int len = to - from;
+        int nc = Math.min(nchunks, len);
+        if (nc < 2) {
+            super.search(ll, sig, from, to);
+            return;
+        }
+        List<ForkJoinTask<double[]>> tasks = new ArrayList<>(nc);
+        for (int i = 0; i < nc; ++i) {
+            int s = from + (int) ((long) len * i / nc);
+            int e = from + (int) ((long) len * (i + 1) / nc);
+            tasks.add(pool.submit(() -> score(ll, sig, s, e)));
+        }
+        // blocks ordered by positions
+        double[] max = null;
+        for (ForkJoinTask<double[]> task : tasks) {
+            double[] cur = task.join();
+            if (cur[1] >= 0 && (max == null || Math.abs(cur[0]) > Math.abs(max[0]))) {
+                max = cur;
+            }
+        }
+        setMax(max == null ? new double[]{0, -1, -1} : max);
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2026 JDemetra+.
+ * Licensed under the EUPL, Version 1.2 or – as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ *      https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package jdplus.toolkitx.base.core.arima;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Supplier;
+import jdplus.toolkit.base.core.arima.IArimaModel;
+import jdplus.toolkit.base.core.math.matrices.FastMatrix;
+import jdplus.toolkit.base.core.regarima.RegArimaModel;
+import jdplus.toolkit.base.core.regarima.outlier.SingleOutlierDetector;
+import nbbrd.design.Development;
+
+/**
+ * Parallel scoring of the outliers with the single outlier detectors of the
+ * configuration. The positions are split in several contiguous blocks; each
+ * block is scored by its own detector. The maxima of the blocks are reduced
+ * in the order of the positions (first maximum of |t|), so that the t-stats
+ * and the selected outlier are identical to the ones of a single detector on
+ * the whole span (up to exact ties between types).
+ * Each detector handles the model as a whole (residuals, standard deviation)
+ * and only restricts the scanned positions.
+ *
+ * @author Jean Palate
+ * @param <T>
+ */
+@Development(status = Development.Status.Preliminary)
+class ParallelSingleOutlierScanner<T extends IArimaModel> implements OutlierScanner<T> {
+
+    private final SingleOutlierDetector<T>[] detectors;
+    private final ForkJoinPool pool;
+    private int n, nf, start, end, nactive;
+    private double maxT;
+    private int maxPosition = -1, maxType = -1;
+
+    /**
+     *
+     * @param main The detector of the first block
+     * @param factory Creates the detectors of the other blocks. They must use
+     * the same outlier factories as the main detector
+     * @param nchunks Number of blocks
+     * @param pool The pool used for the scoring. The common pool is used if
+     * null
+     */
+    ParallelSingleOutlierScanner(SingleOutlierDetector<T> main, Supplier<SingleOutlierDetector<T>> factory, int nchunks, ForkJoinPool pool) {
+        this.detectors = new SingleOutlierDetector[nchunks];
+        detectors[0] = main;
+        for (int i = 1; i < nchunks; ++i) {
+            detectors[i] = factory.get();
+        }
+        this.pool = pool == null ? ForkJoinPool.commonPool() : pool;
+    }
+
+    @Override
+    public void prepare(int n) {
+        this.n = n;
+        this.nf = detectors[0].getOutlierFactoriesCount();
+        for (SingleOutlierDetector<T> detector : detectors) {
+            detector.prepare(n);
+        }
+        setBounds(0, n);
+    }
+
+    @Override
+    public void setBounds(int start, int end) {
+        this.start = start;
+        this.end = end;
+        int len = end - start;
+        nactive = Math.max(1, Math.min(detectors.length, len));
+        for (int i = 0; i < nactive; ++i) {
+            detectors[i].setBounds(start + (int) ((long) len * i / nactive), start + (int) ((long) len * (i + 1) / nactive));
+        }
+    }
+
+    @Override
+    public void exclude(int pos, int type) {
+        for (SingleOutlierDetector<T> detector : detectors) {
+            detector.exclude(pos, type);
+        }
+    }
+
+    @Override
+    public void allow(int pos, int type) {
+        for (SingleOutlierDetector<T> detector : detectors) {
+            detector.allow(pos, type);
+        }
+    }
+
+    @Override
+    public boolean process(RegArimaModel<T> regarima) {
+        maxT = 0;
+        maxPosition = -1;
+        maxType = -1;
+        List<ForkJoinTask<Boolean>> tasks = new ArrayList<>(nactive);
+        for (int i = 1; i < nactive; ++i) {
+            SingleOutlierDetector<T> detector = detectors[i];
+            tasks.add(pool.submit(() -> detector.process(regarima)));
+        }
+        boolean ok = detectors[0].process(regarima);
+        for (ForkJoinTask<Boolean> task : tasks) {
+            ok &= task.join();
+        }
+        if (!ok) {
+            return false;
+        }
+        // blocks ordered by positions
+        for (int i = 0; i < nactive; ++i) {
+            SingleOutlierDetector<T> detector = detectors[i];
+            if (detector.getMaxOutlierPosition() >= 0 && (maxPosition < 0 || Math.abs(detector.getMaxTStat()) > Math.abs(maxT))) {
+                maxT = detector.getMaxTStat();
+                maxPosition = detector.getMaxOutlierPosition();
+                maxType = detector.getMaxOutlierType();
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public double getMaxTStat() {
+        return maxT;
+    }
+
+    @Override
+    public int getMaxOutlierPosition() {
+        return maxPosition;
+    }
+
+    @Override
+    public int getMaxOutlierType() {
+        return maxType;
+    }
+
+    /**
+     * T-stats of the blocks, gathered in a new matrix
+     *
+     * @return
+     */
+    @Override
+    public FastMatrix getT() {
+        FastMatrix T = FastMatrix.make(n, nf);
+        int len = end - start;
+        for (int i = 0; i < nactive; ++i) {
+            FastMatrix D = detectors[i].getT();
+            int s = start + (int) ((long) len * i / nactive), e = start + (int) ((long) len * (i + 1) / nactive);
+            for (int r = s; r < e; ++r) {
+                T.row(r).copy(D.row(r));
+            }
+        }
+        return T;
+    }
+}
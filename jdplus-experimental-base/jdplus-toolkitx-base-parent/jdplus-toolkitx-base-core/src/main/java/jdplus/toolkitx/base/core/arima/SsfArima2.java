@@ -17,9 +17,11 @@
 package jdplus.toolkitx.base.core.arima;
 
 import jdplus.toolkit.base.api.data.DoubleSeq;
+import jdplus.toolkit.base.core.arima.AutoCovarianceFunction;
 import jdplus.toolkit.base.core.arima.IArimaModel;
 import jdplus.toolkit.base.core.data.DataBlock;
 import jdplus.toolkit.base.core.math.matrices.FastMatrix;
+import jdplus.toolkit.base.core.math.polynomials.Polynomial;
 import nbbrd.design.Development;
 import jdplus.toolkit.base.core.ssf.ISsfDynamics;
 import jdplus.toolkit.base.core.ssf.ISsfInitialization;
@@ -32,7 +34,10 @@ import jdplus.toolkit.base.core.ssf.basic.Loading;
 import jdplus.toolkit.base.core.ssf.univariate.Ssf;
 
 /**
- * State array: y(t-1)...y(t-d)y*(t)...y*(t-p+1)e(t)...e(t-q)
+ * State array: y(t-1)...y(t-d)u(t)...u(t-r+1), with phi(B)u(t)=e(t),
+ * y*(t)=theta(B)u(t) and r=max(p, q+1).
+ * For IMA models, u(t)=e(t) and the stationary part of the state is
+ * e(t)...e(t-q).
  *
  * @author Jean Palate
  */
@@ -41,7 +46,7 @@ import jdplus.toolkit.base.core.ssf.univariate.Ssf;
 public class SsfArima2 {
 
     public int dim(IArimaModel arima) {
-        return arima.getNonStationaryArOrder() + arima.getMaOrder() + 1 + arima.getStationaryArOrder();
+        return arima.getNonStationaryArOrder() + Math.max(arima.getMaOrder() + 1, arima.getStationaryArOrder());
     }
 
     public StateComponent stateComponent(IArimaModel arima) {
@@ -50,15 +55,9 @@ public class SsfArima2 {
             throw new SsfException(SsfException.STOCH);
         }
 
-        // case IMA
         DoubleSeq delta = arima.getNonStationaryAr().coefficients();
-        DoubleSeq phi = arima.getStationaryAr().coefficients();
         DoubleSeq theta = arima.getMa().coefficients();
 
-        if (phi.length() > 1) {
-            throw new java.lang.UnsupportedOperationException();
-        }
-
         double[] th = theta.toArray();
         int q = th.length - 1;
         int[] pos = new int[th.length];
@@ -67,12 +66,14 @@ public class SsfArima2 {
         }
         ISsfLoading loading = Loading.from(pos, th);
 
+        ISsfInitialization sinitialization = stationaryInitialization(arima, q, var);
+        ISsfDynamics sdynamics = stationaryDynamics(arima, var);
         if (delta.length() == 1) {
-            return new StateComponent(new MaInitialization(q, var), new MaDynamics(var));
+            return new StateComponent(sinitialization, sdynamics);
         } else {
             DoubleSeq d = delta.drop(1, 0);
-            IntegratedInitialization initialization = new IntegratedInitialization(new MaInitialization(q, var), d);
-            IntegratedDynamics dynamics = new IntegratedDynamics(new MaDynamics(var), loading, d);
+            IntegratedInitialization initialization = new IntegratedInitialization(sinitialization, d);
+            IntegratedDynamics dynamics = new IntegratedDynamics(sdynamics, loading, d);
             return new StateComponent(initialization, dynamics);
         }
     }
@@ -83,15 +84,9 @@ public class SsfArima2 {
             throw new SsfException(SsfException.STOCH);
         }
 
-        // case IMA
         DoubleSeq delta = arima.getNonStationaryAr().coefficients();
-        DoubleSeq phi = arima.getStationaryAr().coefficients();
         DoubleSeq theta = arima.getMa().coefficients();
 
-        if (phi.length() > 1) {
-            throw new java.lang.UnsupportedOperationException();
-        }
-
         double[] th = theta.toArray();
         int q = th.length - 1;
         int[] pos = new int[th.length];
@@ -100,31 +95,47 @@ public class SsfArima2 {
         }
         ISsfLoading loading = Loading.from(pos, th);
 
+        ISsfInitialization sinitialization = stationaryInitialization(arima, q, var);
+        ISsfDynamics sdynamics = stationaryDynamics(arima, var);
         if (delta.length() == 1) {
-            return Ssf.of(new MaInitialization(q, var), new MaDynamics(var), loading);
+            return Ssf.of(sinitialization, sdynamics, loading);
         } else {
             DoubleSeq d = delta.drop(1, 0);
-            IntegratedInitialization initialization = new IntegratedInitialization(new MaInitialization(q, var), d);
-            IntegratedDynamics dynamics = new IntegratedDynamics(new MaDynamics(var), loading, d);
+            IntegratedInitialization initialization = new IntegratedInitialization(sinitialization, d);
+            IntegratedDynamics dynamics = new IntegratedDynamics(sdynamics, loading, d);
             return Ssf.of(initialization, dynamics, Loading.fromPosition(0));
         }
     }
 
+    private ISsfInitialization stationaryInitialization(IArimaModel arima, int q, double var) {
+        int p = arima.getStationaryArOrder();
+        if (p == 0) {
+            return new MaInitialization(q, var);
+        } else {
+            int r = Math.max(p, q + 1);
+            double[] acf = new AutoCovarianceFunction(Polynomial.ONE, arima.getStationaryAr().asPolynomial(), var).values(r);
+            return new ArmaInitialization(acf);
+        }
+    }
+
+    private ISsfDynamics stationaryDynamics(IArimaModel arima, double var) {
+        if (arima.getStationaryArOrder() == 0) {
+            return new MaDynamics(var);
+        } else {
+            DoubleSeq phi = arima.getStationaryAr().coefficients();
+            return new ArmaDynamics(phi.drop(1, 0).fn(x -> -x).toArray(), var);
+        }
+    }
+
     public ISsfLoading loading(IArimaModel arima) {
         double var = arima.getInnovationVariance();
         if (var == 0) {
             throw new SsfException(SsfException.STOCH);
         }
 
-        // case IMA
         DoubleSeq delta = arima.getNonStationaryAr().coefficients();
-        DoubleSeq phi = arima.getStationaryAr().coefficients();
         DoubleSeq theta = arima.getMa().coefficients();
 
-        if (phi.length() > 1) {
-            throw new java.lang.UnsupportedOperationException();
-        }
-
         if (delta.length() == 1 && theta.length() > 1) {
             double[] th = theta.toArray();
             int q = th.length - 1;
@@ -203,7 +214,94 @@ public class SsfArima2 {
 
         @Override
         public void XS(int pos, DataBlock x, DataBlock xs) {
-            xs.mul(0, se);
+            xs.set(0, x.get(0) * se);
+        }
+
+        @Override
+        public boolean isTimeInvariant() {
+            return true;
+        }
+    }
+
+    /**
+     * Contains u(t)...u(t-r+1), with u(t+1)=phi(0)u(t)+...+phi(p-1)u(t-p+1)+e(t+1)
+     */
+    public static class ArmaDynamics implements ISsfDynamics {
+
+        final double[] phi;
+        final double var, se;
+
+        ArmaDynamics(double[] phi, double var) {
+            this.phi = phi;
+            this.var = var;
+            se = Math.sqrt(var);
+        }
+
+        @Override
+        public int getInnovationsDim() {
+            return 1;
+        }
+
+        @Override
+        public void V(int pos, FastMatrix qm) {
+            qm.set(0, 0, var);
+        }
+
+        @Override
+        public void S(int pos, FastMatrix cm) {
+            cm.set(0, 0, se);
+        }
+
+        @Override
+        public boolean hasInnovations(int pos) {
+            return true;
+        }
+
+        @Override
+        public boolean areInnovationsTimeInvariant() {
+            return true;
+        }
+
+        @Override
+        public void T(int pos, FastMatrix tr) {
+            tr.subDiagonal(-1).set(1);
+            for (int i = 0; i < phi.length; ++i) {
+                tr.set(0, i, phi[i]);
+            }
+        }
+
+        @Override
+        public void TX(int pos, DataBlock x) {
+            double x0 = 0;
+            for (int i = 0; i < phi.length; ++i) {
+                x0 += phi[i] * x.get(i);
+            }
+            x.fshiftAndZero();
+            x.set(0, x0);
+        }
+
+        @Override
+        public void addSU(int pos, DataBlock x, DataBlock u) {
+            x.add(0, se * u.get(0));
+        }
+
+        @Override
+        public void addV(int pos, FastMatrix p) {
+            p.add(0, 0, var);
+        }
+
+        @Override
+        public void XT(int pos, DataBlock x) {
+            double x0 = x.get(0);
+            x.bshiftAndZero();
+            for (int i = 0; i < phi.length; ++i) {
+                x.add(i, phi[i] * x0);
+            }
+        }
+
+        @Override
+        public void XS(int pos, DataBlock x, DataBlock xs) {
+            xs.set(0, x.get(0) * se);
         }
 
         @Override
@@ -212,6 +310,56 @@ public class SsfArima2 {
         }
     }
 
+    /**
+     * Stationary initialization of u(t)...u(t-r+1): P0(i,j) = acf(|i-j|)
+     */
+    public static class ArmaInitialization implements ISsfInitialization {
+
+        private final double[] acf;
+
+        /**
+         *
+         * @param acf Auto-covariances of u(t), for lags 0 to r-1
+         */
+        public ArmaInitialization(double[] acf) {
+            this.acf = acf;
+        }
+
+        @Override
+        public int getStateDim() {
+            return acf.length;
+        }
+
+        @Override
+        public boolean isDiffuse() {
+            return false;
+        }
+
+        @Override
+        public int getDiffuseDim() {
+            return 0;
+        }
+
+        @Override
+        public void diffuseConstraints(FastMatrix b) {
+        }
+
+        @Override
+        public void a0(DataBlock a0) {
+        }
+
+        @Override
+        public void Pf0(FastMatrix pf0) {
+            pf0.diagonal().set(acf[0]);
+            for (int i = 1; i < acf.length; ++i) {
+                for (int j = 0; j < i; ++j) {
+                    pf0.set(i, j, acf[i - j]);
+                    pf0.set(j, i, acf[i - j]);
+                }
+            }
+        }
+    }
+
     public static class MaInitialization implements ISsfInitialization {
 
         private final int q;
@@ -0,0 +1,347 @@
+/*
+ * Copyright 2026 JDemetra+.
+ * Licensed under the EUPL, Version 1.2 or – as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ *      https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package jdplus.toolkitx.base.core.arima;
+
+import java.util.Arrays;
+import jdplus.toolkit.base.api.data.DoubleSeq;
+import jdplus.toolkit.base.core.arima.AutoCovarianceFunction;
+import jdplus.toolkit.base.core.arima.IArimaModel;
+import jdplus.toolkit.base.core.arima.estimation.ArmaFilter;
+import jdplus.toolkit.base.core.data.DataBlock;
+import jdplus.toolkit.base.core.math.polynomials.Polynomial;
+import nbbrd.design.Development;
+
+/**
+ * Kalman filter and disturbance smoother of a stationary ARMA model, in the
+ * representation of SsfArima2 (state u(t)...u(t-r+1), with phi(B)u(t)=e(t),
+ * y(t)=theta(B)u(t) and r=max(p,q+1)), specialized for that model.
+ * The state vector, the variance matrix and the smoothing vector are stored
+ * in primitive arrays whose logical positions are rotated at each step, so
+ * that the shift of the transition doesn't move any data: only the first
+ * row/column (phi) and the gain are computed. The workspaces are re-used by
+ * successive calls to prepare (as in the estimation of a model) for a given
+ * dimension and length. The filtering and the smoothing don't allocate
+ * anything; prepare only allocates the auto-covariances of the AR part,
+ * used in the initial variance of models with an AR polynomial.
+ * The recursions are the usual (Riccati) ones. The filter switches to a
+ * fixed gain when the steady state is reached (same rule as in
+ * ChandrasekharFilter).
+ *
+ * @author Jean Palate
+ */
+@Development(status = Development.Status.Preliminary)
+public class SsfArima2Kernel implements ArmaFilter {
+
+    public static final double DEF_EPS = 1e-12;
+
+    private final double eps;
+    private int n, r;
+    // loading (theta, completed by 0) and first row of the transition matrix
+    private double[] z, phi;
+    private double var;
+    // P (physical positions), rotation offset: logical i is at (off+i)%r
+    private double[] p;
+    private int off;
+    // workspaces
+    private double[] pz, w, a, rs, v;
+    // variances of the prediction errors and gains T*P*Z' (flat, logical
+    // positions), before the steady state
+    private double[] f, k;
+    private int steady;
+    private double ldet;
+
+    public SsfArima2Kernel() {
+        this(DEF_EPS);
+    }
+
+    /**
+     *
+     * @param eps Relative precision used in the detection of the steady
+     * state. No switch to the steady state if eps is 0
+     */
+    public SsfArima2Kernel(double eps) {
+        this.eps = eps;
+    }
+
+    @Override
+    public int prepare(IArimaModel arima, int n) {
+        if (arima.getNonStationaryArOrder() > 0) {
+            throw new IllegalArgumentException("Stationary model expected");
+        }
+        DoubleSeq theta = arima.getMa().coefficients();
+        DoubleSeq ar = arima.getStationaryAr().coefficients();
+        int np = ar.length() - 1;
+        int nr = Math.max(np, theta.length());
+        allocate(nr, np, n);
+        theta.copyTo(z, 0);
+        for (int i = theta.length(); i < r; ++i) {
+            z[i] = 0;
+        }
+        for (int i = 0; i < np; ++i) {
+            phi[i] = -ar.get(i + 1);
+        }
+        var = arima.getInnovationVariance();
+        initialize(arima);
+        riccati();
+        return n;
+    }
+
+    private void allocate(int nr, int np, int nn) {
+        if (z == null || z.length != nr) {
+            z = new double[nr];
+            p = new double[nr * nr];
+            pz = new double[nr];
+            w = new double[nr];
+            a = new double[nr];
+            rs = new double[nr];
+            f = null;
+        }
+        if (phi == null || phi.length != np) {
+            phi = new double[np];
+        }
+        if (f == null || f.length < nn) {
+            f = new double[nn];
+            k = new double[nn * nr];
+            v = new double[nn];
+        }
+        r = nr;
+        n = nn;
+    }
+
+    /**
+     * Stationary initial variance (var*I for MA models). The auto-covariances
+     * of AR models are computed in a new array
+     *
+     * @param arima
+     */
+    private void initialize(IArimaModel arima) {
+        off = 0;
+        if (phi.length == 0) {
+            Arrays.fill(p, 0);
+            for (int i = 0, j = 0; i < r; ++i, j += r + 1) {
+                p[j] = var;
+            }
+        } else {
+            double[] acf = new AutoCovarianceFunction(Polynomial.ONE, arima.getStationaryAr().asPolynomial(), var).values(r);
+            for (int i = 0; i < r; ++i) {
+                for (int j = 0; j < r; ++j) {
+                    p[i * r + j] = acf[Math.abs(i - j)];
+                }
+            }
+        }
+    }
+
+    private void riccati() {
+        int nconv = 0;
+        steady = n;
+        ldet = 0;
+        double fprev = 0;
+        for (int t = 0; t < n; ++t) {
+            // pz = P*Z' (logical), F = Z*P*Z'
+            double F = 0;
+            for (int i = 0; i < r; ++i) {
+                int row = pos(i) * r;
+                double s = 0;
+                for (int j = 0; j < r; ++j) {
+                    double zj = z[j];
+                    if (zj != 0) {
+                        s += p[row + pos(j)] * zj;
+                    }
+                }
+                pz[i] = s;
+                F += z[i] * s;
+            }
+            f[t] = F;
+            ldet += Math.log(F);
+            // K = T*P*Z'
+            int kt = t * r;
+            k[kt] = dot(phi, pz);
+            System.arraycopy(pz, 0, k, kt + 1, r - 1);
+            if (t == n - 1) {
+                break;
+            }
+            if (eps > 0 && t > 0) {
+                double dk = 0, nk = 0;
+                for (int i = 0; i < r; ++i) {
+                    double cur = k[kt + i], del = cur - k[kt - r + i];
+                    dk += del * del;
+                    nk += cur * cur;
+                }
+                if (Math.abs(F - fprev) <= eps * F && dk <= eps * eps * nk) {
+                    if (++nconv >= r) {
+                        steady = t;
+                        ldet += (n - 1 - t) * Math.log(F);
+                        break;
+                    }
+                } else {
+                    nconv = 0;
+                }
+            }
+            fprev = F;
+            // P = P - pz*pz'/F, on the physical positions
+            for (int i = 0; i < r; ++i) {
+                w[pos(i)] = pz[i];
+            }
+            for (int i = 0, ij = 0; i < r; ++i) {
+                double c = w[i] / F;
+                for (int j = 0; j < r; ++j, ++ij) {
+                    p[ij] -= c * w[j];
+                }
+            }
+            // P = T*P*T' + V
+            timeUpdate();
+        }
+    }
+
+    /**
+     * P = T*P*T' + V. The new first row/column is written on the
+     * positions of the last one, which is dropped by the shift
+     */
+    private void timeUpdate() {
+        int last = pos(r - 1);
+        double p00 = var;
+        if (phi.length == 0) {
+            for (int j = 0; j < r; ++j) {
+                p[last * r + j] = 0;
+                p[j * r + last] = 0;
+            }
+        } else {
+            // w(j) = sum(phi(i)*P(i,j)) (logical j)
+            for (int j = 0; j < r; ++j) {
+                int cj = pos(j);
+                double s = 0;
+                for (int i = 0; i < phi.length; ++i) {
+                    s += phi[i] * p[pos(i) * r + cj];
+                }
+                w[j] = s;
+            }
+            p00 += dot(phi, w);
+            for (int j = 1; j < r; ++j) {
+                int cj = pos(j - 1);
+                p[last * r + cj] = w[j - 1];
+                p[cj * r + last] = w[j - 1];
+            }
+        }
+        p[last * r + last] = p00;
+        off = last;
+    }
+
+    private int pos(int i) {
+        int j = off + i;
+        return j < r ? j : j - r;
+    }
+
+    @Override
+    public void apply(DoubleSeq x, DataBlock y) {
+        filter(x);
+        for (int t = 0; t < n; ++t) {
+            y.set(t, v[t] / Math.sqrt(fs(t)));
+        }
+    }
+
+    /**
+     * Smoothed innovations e(t|n) of the model (disturbance smoother)
+     *
+     * @param x The (stationary) series
+     * @param e The smoothed innovations (length n)
+     */
+    public void smooth(DoubleSeq x, DataBlock e) {
+        filter(x);
+        // rs = r(t), rotated: logical i is at (off+i)%r
+        Arrays.fill(rs, 0);
+        off = 0;
+        for (int t = n - 1; t >= 0; --t) {
+            int kt = Math.min(t, steady) * r;
+            double F = fs(t);
+            // r(t-1) = Z'(v-K'r(t))/F + T'r(t)
+            double kr = 0;
+            for (int i = 0; i < r; ++i) {
+                kr += k[kt + i] * rs[pos(i)];
+            }
+            double c = (v[t] - kr) / F;
+            // T'r: r(i) = phi(i)*r(0) + r(i+1)
+            double r0 = rs[off];
+            rs[off] = 0;
+            off = pos(1);
+            for (int i = 0; i < r; ++i) {
+                double cur = z[i] * c;
+                if (i < phi.length) {
+                    cur += phi[i] * r0;
+                }
+                rs[pos(i)] += cur;
+            }
+            // e(t) = var*r(t-1)(0)
+            e.set(t, var * rs[off]);
+        }
+    }
+
+    /**
+     * Innovations of the filter, stored in v. a is rotated: logical i is at
+     * (off+i)%r
+     *
+     * @param x
+     */
+    private void filter(DoubleSeq x) {
+        Arrays.fill(a, 0);
+        off = 0;
+        for (int t = 0; t < n; ++t) {
+            int kt = Math.min(t, steady) * r;
+            double e = x.get(t);
+            for (int i = 0; i < r; ++i) {
+                e -= z[i] * a[pos(i)];
+            }
+            v[t] = e;
+            double c = e / fs(t);
+            // a = T*a + K*v/F
+            double a0 = 0;
+            for (int i = 0; i < phi.length; ++i) {
+                a0 += phi[i] * a[pos(i)];
+            }
+            off = pos(r - 1);
+            a[off] = a0;
+            for (int i = 0; i < r; ++i) {
+                a[pos(i)] += k[kt + i] * c;
+            }
+        }
+    }
+
+    private double fs(int t) {
+        return f[Math.min(t, steady)];
+    }
+
+    @Override
+    public double getLogDeterminant() {
+        return ldet;
+    }
+
+    /**
+     * First position of the steady state
+     *
+     * @return The length of the series if the steady state has not been
+     * reached
+     */
+    public int getSteadyStatePosition() {
+        return steady;
+    }
+
+    private static double dot(double[] a, double[] b) {
+        double s = 0;
+        for (int i = 0; i < a.length; ++i) {
+            s += a[i] * b[i];
+        }
+        return s;
+    }
+}
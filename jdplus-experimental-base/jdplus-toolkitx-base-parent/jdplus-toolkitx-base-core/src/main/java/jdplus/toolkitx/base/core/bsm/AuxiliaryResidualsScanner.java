@@ -0,0 +1,266 @@
+/*
+ * Copyright 2026 JDemetra+.
+ * Licensed under the EUPL, Version 1.2 or – as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ *      https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package jdplus.toolkitx.base.core.bsm;
+
+import java.util.Arrays;
+import jdplus.sts.base.core.BsmData;
+import jdplus.sts.base.core.SsfBsm2;
+import jdplus.toolkit.base.api.data.DoubleSeq;
+import jdplus.toolkit.base.core.data.DataBlock;
+import jdplus.toolkit.base.core.math.linearsystem.LinearSystemSolver;
+import jdplus.toolkit.base.core.math.matrices.FastMatrix;
+import jdplus.toolkit.base.core.stats.RobustStandardDeviationComputer;
+import nbbrd.design.Development;
+
+/**
+ * Scoring of the outliers by means of the auxiliary residuals (de Jong and
+ * Penzer, 1998). A single pass of the disturbance smoother provides, for all
+ * the positions, the t-stats of an intervention on the observation equation
+ * (AO) and of interventions on the state equation. The LS and SO are mapped
+ * on the state shocks that reproduce a step and a seasonal step in the
+ * observations (level and level+seasonal disturbances); their directions are
+ * computed once per model. The cost is O(n) per round (instead of one
+ * regression per candidate).
+ * The regression effects are removed with the coefficients of the current
+ * model, which are considered as fixed. The positions of the diffuse part of
+ * the filter are not scored. When the model can't reproduce the pattern of
+ * a requested type by a state shock (for instance a LS in a model without
+ * level), the whole scoring is done by the fallback scanner, so that no
+ * requested type is dropped.
+ *
+ * @author Jean Palate
+ */
+@Development(status = Development.Status.Preliminary)
+class AuxiliaryResidualsScanner implements BsmOutlierScanner {
+
+    private static final int AO = 0, LS = 1, SO = 2;
+    private static final double EPS = 1e-9;
+
+    private final RobustStandardDeviationComputer mad;
+    private final BsmOutlierScanner fallback;
+    private boolean useFallback;
+    private int n;
+    private final boolean[] requested = new boolean[3];
+    private boolean[] excluded;
+    private FastMatrix tau;
+    private double maxTau, maxGlobalTau;
+    private int maxPosition = -1, maxType = -1;
+
+    /**
+     *
+     * @param mad Robust estimation of the standard deviation of the
+     * standardized innovations. If null, the maximum likelihood estimate is
+     * used
+     * @param fallback Scanner used when a requested type can't be mapped on
+     * the state shocks. If null, process fails in that case
+     */
+    AuxiliaryResidualsScanner(RobustStandardDeviationComputer mad, BsmOutlierScanner fallback) {
+        this.mad = mad;
+        this.fallback = fallback;
+    }
+
+    @Override
+    public void prepare(int n) {
+        this.n = n;
+        excluded = new boolean[3 * n];
+        Arrays.fill(requested, true);
+        tau = FastMatrix.make(n, 3);
+        if (fallback != null) {
+            fallback.prepare(n);
+        }
+    }
+
+    @Override
+    public void exclude(int pos, int type) {
+        excluded[3 * pos + type] = true;
+        if (fallback != null) {
+            fallback.exclude(pos, type);
+        }
+    }
+
+    @Override
+    public void excludeType(int type) {
+        requested[type] = false;
+        for (int i = 0; i < n; ++i) {
+            excluded[3 * i + type] = true;
+        }
+        if (fallback != null) {
+            fallback.excludeType(type);
+        }
+    }
+
+    @Override
+    public boolean process(DoubleSeq y, BsmData model, FastMatrix W, DoubleSeq coefficients) {
+        maxTau = 0;
+        maxGlobalTau = 0;
+        maxPosition = -1;
+        maxType = -1;
+        useFallback = false;
+        tau.set(0);
+        BsmDisturbanceSmoother smoother = BsmDisturbanceSmoother.of(SsfBsm2.of(model), BsmDisturbanceSmoother.linearize(y, W, coefficients));
+        if (smoother == null || smoother.getObsCount() == 0) {
+            return false;
+        }
+        int d = smoother.getEndDiffusePosition();
+        double[][] T = smoother.getTransition();
+        double[] z = smoother.getLoading();
+        int period = model.getPeriod();
+        double[] wls = requested[LS] ? direction(T, z, period, false) : null;
+        double[] wso = requested[SO] && period > 1 ? direction(T, z, period, true) : null;
+        if ((requested[LS] && wls == null) || (requested[SO] && period > 1 && wso == null)) {
+            if (fallback == null) {
+                return false;
+            }
+            useFallback = true;
+            return fallback.process(y, model, W, coefficients);
+        }
+
+        double[] u = new double[n], D = new double[n];
+        double[] rls = new double[n], nls = new double[n], rso = new double[n], nso = new double[n];
+        smoother.smooth((t, obs, ut, Dt, r, N, rp, Np) -> {
+            if (obs) {
+                u[t] = ut;
+                D[t] = Dt;
+            }
+            // shocks on the state at t (first effect on the observation t)
+            if (wls != null) {
+                rls[t] = BsmDisturbanceSmoother.dot(wls, rp);
+                nls[t] = BsmDisturbanceSmoother.quad(Np, wls);
+            }
+            if (wso != null) {
+                rso[t] = BsmDisturbanceSmoother.dot(wso, rp);
+                nso[t] = BsmDisturbanceSmoother.quad(Np, wso);
+            }
+        });
+        double sig2 = smoother.sigma2();
+        double rsig2 = sig2;
+        if (mad != null) {
+            double s = mad.compute(smoother.standardizedInnovations());
+            rsig2 = s * s;
+        }
+        if (rsig2 <= 0) {
+            return false;
+        }
+        for (int t = d; t < n; ++t) {
+            score(t, AO, u[t], D[t], sig2, rsig2);
+            if (wls != null) {
+                score(t, LS, rls[t], nls[t], sig2, rsig2);
+            }
+            if (wso != null) {
+                score(t, SO, rso[t], nso[t], sig2, rsig2);
+            }
+        }
+        return true;
+    }
+
+    private void score(int t, int type, double s, double var, double sig2, double rsig2) {
+        if (excluded[3 * t + type] || var <= EPS) {
+            return;
+        }
+        double x = s * s / var;
+        double cur = x / rsig2;
+        tau.set(t, type, cur);
+        if (cur > maxTau) {
+            maxTau = cur;
+            maxPosition = t;
+            maxType = type;
+        }
+        maxGlobalTau = Math.max(maxGlobalTau, x / sig2);
+    }
+
+    /**
+     * Direction w of the state shock such that z'T^k w reproduces the
+     * pattern of the outlier (step or seasonal step), in the least squares
+     * sense
+     *
+     * @return null if the pattern can't be reproduced
+     */
+    private static double[] direction(double[][] T, double[] z, int period, boolean seasonal) {
+        int m = z.length;
+        int nrows = Math.max(2 * period, 2 * m);
+        FastMatrix H = FastMatrix.make(nrows, m);
+        double[] p = new double[nrows];
+        double[] x = z.clone(), xt = new double[m];
+        for (int k = 0; k < nrows; ++k) {
+            H.row(k).copyFrom(x, 0);
+            p[k] = !seasonal || k % period == 0 ? 1 : 0;
+            // x = x'T
+            for (int j = 0; j < m; ++j) {
+                double s = 0;
+                for (int i = 0; i < m; ++i) {
+                    s += x[i] * T[i][j];
+                }
+                xt[j] = s;
+            }
+            System.arraycopy(xt, 0, x, 0, m);
+        }
+        // normal equations
+        FastMatrix HtH = FastMatrix.square(m);
+        DataBlock w = DataBlock.make(m);
+        for (int i = 0; i < m; ++i) {
+            for (int j = 0; j < m; ++j) {
+                HtH.set(i, j, H.column(i).dot(H.column(j)));
+            }
+            w.set(i, H.column(i).dot(DoubleSeq.of(p)));
+        }
+        try {
+            LinearSystemSolver.fastSolver().solve(HtH, w);
+        } catch (Exception err) {
+            return null;
+        }
+        double err = 0, pp = 0;
+        for (int k = 0; k < nrows; ++k) {
+            double ek = H.row(k).dot(w) - p[k];
+            err += ek * ek;
+            pp += p[k] * p[k];
+        }
+        return err > 1e-6 * pp ? null : w.toArray();
+    }
+
+    @Override
+    public FastMatrix getTau() {
+        return useFallback ? fallback.getTau().deepClone() : tau.deepClone();
+    }
+
+    @Override
+    public double getMaxTau() {
+        return useFallback ? fallback.getMaxTau() : maxTau;
+    }
+
+    @Override
+    public double getMaxGlobalTau() {
+        return useFallback ? fallback.getMaxGlobalTau() : maxGlobalTau;
+    }
+
+    @Override
+    public int getMaxOutlierPosition() {
+        return useFallback ? fallback.getMaxOutlierPosition() : maxPosition;
+    }
+
+    @Override
+    public int getMaxOutlierType() {
+        return useFallback ? fallback.getMaxOutlierType() : maxType;
+    }
+
+    /**
+     * Indicates that the last model has been scored by the fallback scanner
+     *
+     * @return
+     */
+    boolean isFallbackUsed() {
+        return useFallback;
+    }
+}
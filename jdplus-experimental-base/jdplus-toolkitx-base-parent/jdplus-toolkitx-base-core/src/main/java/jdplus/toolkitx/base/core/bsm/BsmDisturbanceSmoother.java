@@ -0,0 +1,312 @@
+/*
+ * Copyright 2026 JDemetra+.
+ * Licensed under the EUPL, Version 1.2 or – as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ *      https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package jdplus.toolkitx.base.core.bsm;
+
+import jdplus.sts.base.core.SsfBsm2;
+import jdplus.toolkit.base.api.data.DoubleSeq;
+import jdplus.toolkit.base.core.data.DataBlock;
+import jdplus.toolkit.base.core.math.matrices.FastMatrix;
+import jdplus.toolkit.base.core.ssf.dk.DefaultDiffuseFilteringResults;
+import jdplus.toolkit.base.core.ssf.dk.DkToolkit;
+import jdplus.toolkit.base.core.ssf.univariate.SsfData;
+
+/**
+ * Backward recursions of the disturbance smoother of a (time invariant) Bsm,
+ * computed on the stored results of the diffuse Kalman filter. The model is
+ * expressed in relative variances (the scaling factor is concentrated out).
+ * The recursions only cover the non-diffuse part of the series
+ * ([getEndDiffusePosition(), n[).
+ *
+ * @author Jean Palate
+ */
+class BsmDisturbanceSmoother {
+
+    /**
+     * Quantities of the smoother at a given position
+     */
+    @FunctionalInterface
+    static interface Visitor {
+
+        /**
+         *
+         * @param t The position
+         * @param obs False if the observation is missing
+         * @param u Smoothed observation disturbance, u(t)=v(t)/f(t)-K(t)'r(t)
+         * @param D Variance of u(t)
+         * @param r r(t): smoothed shocks entering the state at t+1
+         * @param N N(t): variance of r(t)
+         * @param rp r(t-1): smoothed shocks entering the state at t
+         * @param Np N(t-1): variance of r(t-1)
+         */
+        void visit(int t, boolean obs, double u, double D, double[] r, double[][] N, double[] rp, double[][] Np);
+    }
+
+    private final DefaultDiffuseFilteringResults fr;
+    private final int n, m, d;
+    private final double[][] T;
+    private final double[] z;
+    private final double[] e;
+    private final int nobs;
+    private final double ssq, ldet;
+
+    /**
+     * Filters the series
+     *
+     * @param ssf
+     * @param y The series, corrected for the regression effects
+     * @return null if the filter failed
+     */
+    static BsmDisturbanceSmoother of(SsfBsm2 ssf, DoubleSeq y) {
+        try {
+            DefaultDiffuseFilteringResults fr = DkToolkit.filter(ssf, new SsfData(y), true);
+            return new BsmDisturbanceSmoother(ssf, fr, y.length());
+        } catch (Exception err) {
+            return null;
+        }
+    }
+
+    /**
+     * Removes the regression effects
+     *
+     * @param y
+     * @param W May be null
+     * @param coefficients The coefficients of W. May be null
+     * @return
+     */
+    static DoubleSeq linearize(DoubleSeq y, FastMatrix W, DoubleSeq coefficients) {
+        if (W == null || coefficients == null || coefficients.length() == 0) {
+            return y;
+        }
+        double[] yc = y.toArray();
+        for (int j = 0; j < W.getColumnsCount(); ++j) {
+            double b = coefficients.get(j);
+            DataBlock col = W.column(j);
+            for (int t = 0; t < yc.length; ++t) {
+                yc[t] -= b * col.get(t);
+            }
+        }
+        return DoubleSeq.of(yc);
+    }
+
+    /**
+     * Transition matrix of a time invariant model
+     *
+     * @param ssf
+     * @return
+     */
+    static double[][] transition(SsfBsm2 ssf) {
+        int m = ssf.getStateDim();
+        FastMatrix tm = FastMatrix.square(m);
+        ssf.dynamics().T(0, tm);
+        return toArray(tm);
+    }
+
+    /**
+     * Variance of the state innovations of a time invariant model
+     *
+     * @param ssf
+     * @return
+     */
+    static double[][] innovationsVariance(SsfBsm2 ssf) {
+        int m = ssf.getStateDim();
+        FastMatrix v = FastMatrix.square(m);
+        ssf.dynamics().V(0, v);
+        return toArray(v);
+    }
+
+    private static double[][] toArray(FastMatrix M) {
+        int m = M.getRowsCount();
+        double[][] a = new double[m][m];
+        for (int i = 0; i < m; ++i) {
+            for (int j = 0; j < m; ++j) {
+                a[i][j] = M.get(i, j);
+            }
+        }
+        return a;
+    }
+
+    private BsmDisturbanceSmoother(SsfBsm2 ssf, DefaultDiffuseFilteringResults fr, int n) {
+        this.fr = fr;
+        this.n = n;
+        this.m = ssf.getStateDim();
+        this.d = fr.getEndDiffusePosition();
+        this.T = transition(ssf);
+        DataBlock zb = DataBlock.make(m);
+        ssf.loading().Z(0, zb);
+        this.z = zb.toArray();
+        double[] std = new double[n - d];
+        int k = 0;
+        double s = 0, l = 0;
+        for (int t = d; t < n; ++t) {
+            double v = fr.error(t), f = fr.errorVariance(t);
+            if (Double.isFinite(v) && f > 0) {
+                std[k++] = v / Math.sqrt(f);
+                s += v * v / f;
+                l += Math.log(f);
+            }
+        }
+        this.e = std;
+        this.nobs = k;
+        this.ssq = s;
+        this.ldet = l;
+    }
+
+    int getStateDim() {
+        return m;
+    }
+
+    int getEndDiffusePosition() {
+        return d;
+    }
+
+    double[][] getTransition() {
+        return T;
+    }
+
+    double[] getLoading() {
+        return z;
+    }
+
+    /**
+     * Number of the observations in the non-diffuse part
+     *
+     * @return
+     */
+    int getObsCount() {
+        return nobs;
+    }
+
+    /**
+     * Maximum likelihood estimate of the scaling factor (non-diffuse part)
+     *
+     * @return
+     */
+    double sigma2() {
+        return nobs == 0 ? Double.NaN : ssq / nobs;
+    }
+
+    /**
+     * Sum of the logarithms of the variances of the innovations (non-diffuse
+     * part)
+     *
+     * @return
+     */
+    double logDeterminant() {
+        return ldet;
+    }
+
+    /**
+     * Standardized innovations of the non-diffuse part (missing values
+     * omitted)
+     *
+     * @return
+     */
+    DoubleSeq standardizedInnovations() {
+        return DoubleSeq.of(e, 0, nobs);
+    }
+
+    /**
+     * Backward pass, from n-1 to getEndDiffusePosition()
+     *
+     * @param visitor
+     */
+    void smooth(Visitor visitor) {
+        double[] r = new double[m], rn = new double[m], K = new double[m];
+        double[][] N = new double[m][m], L = new double[m][m], NL = new double[m][m], Nn = new double[m][m];
+        for (int t = n - 1; t >= d; --t) {
+            double v = fr.error(t), f = fr.errorVariance(t);
+            boolean obs = Double.isFinite(v) && f > 0;
+            double u = 0, D = 0;
+            if (obs) {
+                DataBlock M = fr.M(t);
+                // K = T*M/f
+                for (int i = 0; i < m; ++i) {
+                    double s = 0;
+                    for (int j = 0; j < m; ++j) {
+                        s += T[i][j] * M.get(j);
+                    }
+                    K[i] = s / f;
+                }
+                u = v / f - dot(K, r);
+                D = 1 / f + quad(N, K);
+                // L = T - K*z'
+                for (int i = 0; i < m; ++i) {
+                    for (int j = 0; j < m; ++j) {
+                        L[i][j] = T[i][j] - K[i] * z[j];
+                    }
+                }
+            } else {
+                for (int i = 0; i < m; ++i) {
+                    System.arraycopy(T[i], 0, L[i], 0, m);
+                }
+            }
+            // r(t-1) = z*u(t) + T'r(t), N(t-1) = z*z'/f + L'N(t)L
+            for (int j = 0; j < m; ++j) {
+                double s = obs ? z[j] * u : 0;
+                for (int i = 0; i < m; ++i) {
+                    s += T[i][j] * r[i];
+                }
+                rn[j] = s;
+            }
+            for (int i = 0; i < m; ++i) {
+                for (int j = 0; j < m; ++j) {
+                    double s = 0;
+                    for (int k = 0; k < m; ++k) {
+                        s += N[i][k] * L[k][j];
+                    }
+                    NL[i][j] = s;
+                }
+            }
+            for (int i = 0; i < m; ++i) {
+                for (int j = 0; j <= i; ++j) {
+                    double s = obs ? z[i] * z[j] / f : 0;
+                    for (int k = 0; k < m; ++k) {
+                        s += L[k][i] * NL[k][j];
+                    }
+                    Nn[i][j] = s;
+                    Nn[j][i] = s;
+                }
+            }
+            visitor.visit(t, obs, u, D, r, N, rn, Nn);
+            double[] tmp = r;
+            r = rn;
+            rn = tmp;
+            double[][] tmpN = N;
+            N = Nn;
+            Nn = tmpN;
+        }
+    }
+
+    static double dot(double[] a, double[] b) {
+        double s = 0;
+        for (int i = 0; i < a.length; ++i) {
+            s += a[i] * b[i];
+        }
+        return s;
+    }
+
+    static double quad(double[][] N, double[] x) {
+        double s = 0;
+        for (int i = 0; i < x.length; ++i) {
+            double si = 0;
+            for (int j = 0; j < x.length; ++j) {
+                si += N[i][j] * x[j];
+            }
+            s += x[i] * si;
+        }
+        return s;
+    }
+}
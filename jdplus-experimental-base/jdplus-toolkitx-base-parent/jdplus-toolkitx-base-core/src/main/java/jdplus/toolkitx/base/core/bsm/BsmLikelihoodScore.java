@@ -0,0 +1,231 @@
+/*
+ * Copyright 2026 JDemetra+.
+ * Licensed under the EUPL, Version 1.2 or – as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ *      https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package jdplus.toolkitx.base.core.bsm;
+
+import java.util.Arrays;
+import jdplus.sts.base.core.BsmData;
+import jdplus.sts.base.core.SsfBsm2;
+import jdplus.toolkit.base.api.data.DoubleSeq;
+import jdplus.toolkit.base.core.math.functions.IParametricMapping;
+import jdplus.toolkit.base.core.math.matrices.FastMatrix;
+import jdplus.toolkit.base.core.ssf.univariate.ISsfError;
+import nbbrd.design.Development;
+
+/**
+ * Analytic gradient of the concentrated log-likelihood of a Bsm, computed
+ * from a single pass of the disturbance smoother (Koopman and Shephard,
+ * 1992):
+ * dlogL/dp = 1/2 sum(t) tr[(r(t)r(t)'/s2 - N(t)) dV/dp] + 1/2 sum(t)
+ * (u(t)^2/s2 - D(t)) dh/dp
+ * where V is the variance of the state innovations, h the variance of the
+ * measurement error and s2 the maximum likelihood estimate of the scaling
+ * factor. The derivatives of V and h are obtained through the mapping
+ * (without filtering). The parameters that modify the transition matrix
+ * (cycle) are derived numerically. The diffuse initial part and the
+ * uncertainty of the regression coefficients are neglected: the function
+ * derived is the likelihood of the non-diffuse part (see logLikelihood),
+ * which differs from the diffuse likelihood of SsfFunction by the
+ * contributions of the first observations and by the dependence of the
+ * initial (non-diffuse) state on the parameters. The gradient is thus an
+ * approximation of the gradient of the diffuse likelihood, and the callers
+ * must check the steps against the diffuse likelihood.
+ * BsmKernel doesn't accept an external gradient; the full estimations don't
+ * use this score.
+ *
+ * @author Jean Palate
+ */
+@Development(status = Development.Status.Preliminary)
+class BsmLikelihoodScore {
+
+    private static final double STEP = 1e-6;
+
+    private final IParametricMapping<BsmData> mapping;
+    private final DoubleSeq y;
+    private int nevals, nnumeric;
+
+    /**
+     *
+     * @param mapping
+     * @param y The series, corrected for the regression effects
+     */
+    BsmLikelihoodScore(IParametricMapping<BsmData> mapping, DoubleSeq y) {
+        this.mapping = mapping;
+        this.y = y;
+    }
+
+    /**
+     * Gradient of the log-likelihood
+     *
+     * @param p
+     * @return null if the filter failed
+     */
+    double[] gradient(DoubleSeq p) {
+        SsfBsm2 ssf = model(p);
+        BsmDisturbanceSmoother smoother = BsmDisturbanceSmoother.of(ssf, y);
+        if (smoother == null || smoother.getObsCount() == 0) {
+            return null;
+        }
+        int np = p.length();
+        double[][] T0 = smoother.getTransition(), V0 = BsmDisturbanceSmoother.innovationsVariance(ssf);
+        double h0 = measurementVariance(ssf);
+        double[][][] dV = new double[np][][];
+        double[] dh = new double[np];
+        double[] g = new double[np];
+        boolean[] numeric = new boolean[np];
+        for (int k = 0; k < np; ++k) {
+            double step = step(p, k);
+            SsfBsm2 sk = model(shift(p, k, step));
+            if (!Arrays.deepEquals(T0, BsmDisturbanceSmoother.transition(sk))) {
+                numeric[k] = true;
+                continue;
+            }
+            double[][] Vk = BsmDisturbanceSmoother.innovationsVariance(sk);
+            for (int i = 0; i < Vk.length; ++i) {
+                for (int j = 0; j < Vk.length; ++j) {
+                    Vk[i][j] = (Vk[i][j] - V0[i][j]) / step;
+                }
+            }
+            dV[k] = Vk;
+            dh[k] = (measurementVariance(sk) - h0) / step;
+        }
+        double[] a = new double[np], b = new double[np];
+        smoother.smooth((t, obs, u, D, r, N, rp, Np) -> {
+            for (int k = 0; k < np; ++k) {
+                if (numeric[k]) {
+                    continue;
+                }
+                double[][] dVk = dV[k];
+                a[k] += BsmDisturbanceSmoother.quad(dVk, r);
+                double tr = 0;
+                for (int i = 0; i < dVk.length; ++i) {
+                    for (int j = 0; j < dVk.length; ++j) {
+                        tr += N[i][j] * dVk[j][i];
+                    }
+                }
+                b[k] += tr;
+                if (obs) {
+                    a[k] += u * u * dh[k];
+                    b[k] += D * dh[k];
+                }
+            }
+        });
+        double s2 = smoother.sigma2();
+        for (int k = 0; k < np; ++k) {
+            if (numeric[k]) {
+                double step = step(p, k);
+                double lp = logLikelihood(shift(p, k, step)), lm = logLikelihood(shift(p, k, -step));
+                nnumeric += 2;
+                g[k] = (lp - lm) / (2 * step);
+            } else {
+                g[k] = .5 * (a[k] / s2 - b[k]);
+            }
+        }
+        return g;
+    }
+
+    /**
+     * Hessian of the log-likelihood, computed by forward differences of the
+     * analytic gradient (np+1 smoothing passes)
+     *
+     * @param p
+     * @param g The gradient at p
+     * @return null if the filter failed
+     */
+    FastMatrix hessian(DoubleSeq p, double[] g) {
+        int np = p.length();
+        FastMatrix H = FastMatrix.square(np);
+        for (int k = 0; k < np; ++k) {
+            double step = step(p, k);
+            double[] gk = gradient(shift(p, k, step));
+            if (gk == null) {
+                return null;
+            }
+            for (int i = 0; i < np; ++i) {
+                H.set(i, k, (gk[i] - g[i]) / step);
+            }
+        }
+        // symmetrization
+        for (int i = 0; i < np; ++i) {
+            for (int j = 0; j < i; ++j) {
+                double h = .5 * (H.get(i, j) + H.get(j, i));
+                H.set(i, j, h);
+                H.set(j, i, h);
+            }
+        }
+        return H;
+    }
+
+    /**
+     * Number of evaluations since the creation of this object: each model
+     * generated by the mapping is counted, whether it is filtered (smoother,
+     * numeric derivatives of the cycle) or only used for the derivatives of
+     * the variances
+     *
+     * @return
+     */
+    int getEvaluationsCount() {
+        return nevals;
+    }
+
+    /**
+     * Number of filter passes used in the numeric derivatives of the
+     * parameters that modify the transition matrix (cycle), since the
+     * creation of this object. They are included in getEvaluationsCount
+     *
+     * @return
+     */
+    int getNumericEvaluationsCount() {
+        return nnumeric;
+    }
+
+    private SsfBsm2 model(DoubleSeq p) {
+        ++nevals;
+        return SsfBsm2.of(mapping.map(p));
+    }
+
+    /**
+     * Concentrated log-likelihood of the non-diffuse part, up to a constant.
+     * This is the function derived by gradient
+     *
+     * @param p
+     * @return
+     */
+    double logLikelihood(DoubleSeq p) {
+        SsfBsm2 ssf = model(p);
+        BsmDisturbanceSmoother smoother = BsmDisturbanceSmoother.of(ssf, y);
+        if (smoother == null) {
+            return Double.NaN;
+        }
+        int nobs = smoother.getObsCount();
+        return -.5 * (nobs * Math.log(smoother.sigma2()) + smoother.logDeterminant());
+    }
+
+    private double step(DoubleSeq p, int k) {
+        double step = STEP * Math.max(1, Math.abs(p.get(k)));
+        return mapping.checkBoundaries(shift(p, k, step)) ? step : -step;
+    }
+
+    private static DoubleSeq shift(DoubleSeq p, int k, double step) {
+        double[] q = p.toArray();
+        q[k] += step;
+        return DoubleSeq.of(q);
+    }
+
+    private static double measurementVariance(SsfBsm2 ssf) {
+        ISsfError err = ssf.measurementError();
+        return err == null ? 0 : err.at(0);
+    }
+}
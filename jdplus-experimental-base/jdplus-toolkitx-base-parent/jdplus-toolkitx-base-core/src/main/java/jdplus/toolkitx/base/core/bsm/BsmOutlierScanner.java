@@ -0,0 +1,119 @@
+/*
+ * Copyright 2026 JDemetra+.
+ * Licensed under the EUPL, Version 1.2 or – as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ *      https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package jdplus.toolkitx.base.core.bsm;
+
+import jdplus.sts.base.core.BsmData;
+import jdplus.sts.base.core.SsfOutlierDetector;
+import jdplus.toolkit.base.api.data.DoubleSeq;
+import jdplus.toolkit.base.core.math.matrices.FastMatrix;
+
+/**
+ * Scoring of the candidate outliers (AO, LS, SO) of a Bsm. The scores are
+ * the squared t-stats (tau) of the outliers
+ *
+ * @author Jean Palate
+ */
+interface BsmOutlierScanner {
+
+    void prepare(int n);
+
+    void exclude(int pos, int type);
+
+    void excludeType(int type);
+
+    /**
+     *
+     * @param y The series
+     * @param model The current model
+     * @param W The current regression variables. May be null
+     * @param coefficients The coefficients of the regression variables in
+     * the current model
+     * @return
+     */
+    boolean process(DoubleSeq y, BsmData model, FastMatrix W, DoubleSeq coefficients);
+
+    FastMatrix getTau();
+
+    double getMaxTau();
+
+    /**
+     * Largest tau computed with the maximum likelihood estimate of the
+     * variance
+     *
+     * @return
+     */
+    double getMaxGlobalTau();
+
+    int getMaxOutlierPosition();
+
+    int getMaxOutlierType();
+
+    /**
+     * Scoring by means of the usual single outlier detector (one regression
+     * per candidate)
+     *
+     * @param sod
+     * @return
+     */
+    static BsmOutlierScanner of(SsfOutlierDetector sod) {
+        return new BsmOutlierScanner() {
+            @Override
+            public void prepare(int n) {
+                sod.prepare(n);
+            }
+
+            @Override
+            public void exclude(int pos, int type) {
+                sod.exclude(pos, type);
+            }
+
+            @Override
+            public void excludeType(int type) {
+                sod.excludeType(type);
+            }
+
+            @Override
+            public boolean process(DoubleSeq y, BsmData model, FastMatrix W, DoubleSeq coefficients) {
+                return sod.process(y, model, W, 0);
+            }
+
+            @Override
+            public FastMatrix getTau() {
+                return sod.getTau();
+            }
+
+            @Override
+            public double getMaxTau() {
+                return sod.getMaxTau();
+            }
+
+            @Override
+            public double getMaxGlobalTau() {
+                return sod.getMaxGlobalTau();
+            }
+
+            @Override
+            public int getMaxOutlierPosition() {
+                return sod.getMaxOutlierPosition();
+            }
+
+            @Override
+            public int getMaxOutlierType() {
+                return sod.getMaxOutlierType();
+            }
+        };
+    }
+}
@@ -5,9 +5,12 @@
  */
 package jdplus.toolkitx.base.core.bsm;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
 import jdplus.toolkit.base.api.data.DoubleSeq;
 import jdplus.toolkit.base.api.data.DoublesMath;
 import jdplus.sts.base.api.BsmEstimationSpec;
@@ -31,6 +34,10 @@ import jdplus.toolkit.base.core.stats.RobustStandardDeviationComputer;
 import jdplus.toolkitx.base.api.processing.IProcessingHook.HookInformation;
 import jdplus.toolkitx.base.api.processing.IProcessingHookProvider;
 import jdplus.toolkitx.base.api.processing.ProcessingHookProvider;
+import jdplus.toolkitx.base.core.jfr.BackwardEliminationEvent;
+import jdplus.toolkitx.base.core.jfr.EstimationEvent;
+import jdplus.toolkitx.base.core.jfr.OutliersRoundEvent;
+import jdplus.toolkitx.base.core.math.functions.CountingMapping;
 
 /**
  *
@@ -38,6 +45,12 @@ import jdplus.toolkitx.base.api.processing.ProcessingHookProvider;
  */
 public class BsmOutliersDetector implements IProcessingHookProvider<BsmOutliersDetector.OutlierInfo> {
 
+    /**
+     * Information sent to the hooks. The hooks are called when an outlier
+     * has been added and the model has been re-estimated (bsm is the new
+     * model). When a hook cancels the processing, the outlier is kept and
+     * the search stops with that model (see isTruncated)
+     */
     @lombok.Value
     public static class OutlierInfo {
 
@@ -52,6 +65,33 @@ public class BsmOutliersDetector implements IProcessingHookProvider<BsmOutliersD
         Full, Score, Point;
     }
 
+    private static final String JFR_NAME = "Bsm";
+    private static final String[] CODES = new String[]{"AO", "LS", "SO"};
+
+    /**
+     * State of the detector at the end of a processing, which can be re-used
+     * for the next vintage of the series
+     */
+    @lombok.Value
+    public static class Vintage {
+
+        /**
+         * Outliers (position, type)
+         */
+        List<int[]> outliers;
+        BsmData model;
+        /**
+         * Parameters of the model, in the parametrization used in the
+         * estimation
+         */
+        DoubleSeq parameters;
+        BsmSpec specification;
+        /**
+         * Component with a fixed (scaled) variance
+         */
+        Component fixed;
+    }
+
     @BuilderPattern(BsmOutliersDetector.class)
     public static class Builder {
 
@@ -62,6 +102,11 @@ public class BsmOutliersDetector implements IProcessingHookProvider<BsmOutliersD
         private double precision = 1e-5;
         private double fullEstimationThreshold = 5;
         private boolean mad = true;
+        private Supplier<RobustStandardDeviationComputer> madFactory;
+        private boolean auxiliaryResiduals, analyticScore;
+        private boolean parallelDerivatives = false;
+        private ForkJoinPool pool;
+        private Duration budget;
         private Estimation forwardEstimation = Estimation.Score, backwardEstimation = Estimation.Point;
 
         public Builder bsm(BsmSpec spec) {
@@ -89,6 +134,36 @@ public class BsmOutliersDetector implements IProcessingHookProvider<BsmOutliersD
             return this;
         }
 
+        /**
+         * Computer of the robust standard deviation, used when mad is true
+         * (RobustStandardDeviationComputer.mad() by default). Each detector
+         * gets its own computer, which may keep a state between the rounds
+         * (see SelectionMadComputer)
+         *
+         * @param factory
+         * @return
+         */
+        public Builder madComputer(Supplier<RobustStandardDeviationComputer> factory) {
+            this.madFactory = factory;
+            return this;
+        }
+
+        /**
+         * Scoring of the candidate outliers by means of the auxiliary
+         * residuals (one pass of the disturbance smoother per round) instead
+         * of one regression per candidate. The LS and SO are mapped on the
+         * state disturbances. The positions of the diffuse part of the series
+         * are not scored. The usual scoring is used when the model can't
+         * reproduce a requested type (for instance a LS without level)
+         *
+         * @param aux
+         * @return
+         */
+        public Builder auxiliaryResiduals(boolean aux) {
+            this.auxiliaryResiduals = aux;
+            return this;
+        }
+
         public Builder criticalValue(double cv) {
             this.cv = cv;
             return this;
@@ -119,8 +194,125 @@ public class BsmOutliersDetector implements IProcessingHookProvider<BsmOutliersD
             return this;
         }
 
+        /**
+         * Score estimation with the analytic gradient of the likelihood
+         * (one smoothing pass), instead of numerical derivatives. The Hessian
+         * is computed by differences of the analytic gradients.
+         * The gradient neglects the diffuse initial part of the likelihood
+         * (see BsmLikelihoodScore), so that a Newton step is only accepted
+         * if it doesn't decrease the full (diffuse) likelihood. The full
+         * estimations (BsmKernel) are not affected: they keep their own
+         * optimizer
+         *
+         * @param analytic
+         * @return
+         */
+        public Builder analyticScore(boolean analytic) {
+            this.analyticScore = analytic;
+            return this;
+        }
+
+        /**
+         * Computes the numerical derivatives (score estimation) in parallel
+         *
+         * @param parallel
+         * @return
+         */
+        public Builder parallelDerivatives(boolean parallel) {
+            this.parallelDerivatives = parallel;
+            return this;
+        }
+
+        /**
+         * Pool used for the parallel computation of the derivatives. The pool
+         * can be shared by several detectors. The common pool is used by
+         * default
+         *
+         * @param pool
+         * @return
+         */
+        public Builder forkJoinPool(ForkJoinPool pool) {
+            this.pool = pool;
+            return this;
+        }
+
+        /**
+         * Maximum duration of the processing (no limit by default). When the
+         * budget is exhausted, the search is stopped and the detector keeps
+         * the last estimated model (see isTruncated). The budget is checked
+         * between the estimations.
+         *
+         * @param budget
+         * @return
+         */
+        public Builder timeBudget(Duration budget) {
+            this.budget = budget;
+            return this;
+        }
+
         public BsmOutliersDetector build() {
-            return new BsmOutliersDetector(spec, ao, ls, so, cv, mad, maxIter, forwardEstimation, backwardEstimation, precision, fullEstimationThreshold);
+            return configuration().create();
+        }
+
+        /**
+         * Immutable configuration, which can be shared between threads
+         *
+         * @return
+         */
+        public Configuration configuration() {
+            return new Configuration(spec, ao, ls, so, cv, mad, madFactory, auxiliaryResiduals, analyticScore, maxIter, forwardEstimation, backwardEstimation, precision, fullEstimationThreshold,
+                    parallelDerivatives, pool, budget == null ? 0 : budget.toNanos());
+        }
+    }
+
+    /**
+     * Immutable configuration of the detector. Each call to create returns a
+     * new detector (execution context), which holds the state of the
+     * processing of one series. A configuration can serve concurrent
+     * requests; the detectors can't.
+     */
+    @lombok.Value
+    @lombok.AllArgsConstructor(access = lombok.AccessLevel.PRIVATE)
+    public static class Configuration {
+
+        BsmSpec specification;
+        boolean ao, ls, so;
+        double criticalValue;
+        boolean mad;
+        Supplier<RobustStandardDeviationComputer> madComputerFactory;
+        boolean auxiliaryResiduals, analyticScore;
+        int maxIter;
+        Estimation forwardEstimation, backwardEstimation;
+        double precision, fullEstimationThreshold;
+        boolean parallelDerivatives;
+        ForkJoinPool forkJoinPool;
+        /**
+         * Time budget, in nanoseconds (0 for no limit)
+         */
+        long timeBudget;
+
+        /**
+         * Creates a new execution context
+         *
+         * @return
+         */
+        public BsmOutliersDetector create() {
+            return new BsmOutliersDetector(specification, ao, ls, so, criticalValue, mad, madComputerFactory, auxiliaryResiduals, analyticScore, maxIter, forwardEstimation, backwardEstimation,
+                    precision, fullEstimationThreshold, parallelDerivatives, forkJoinPool, timeBudget);
+        }
+
+        /**
+         * Processes a series in a new execution context
+         *
+         * @param y
+         * @param X
+         * @param period
+         * @return The execution context, which contains the results, or null
+         * if the processing failed
+         */
+        public BsmOutliersDetector process(DoubleSeq y, FastMatrix X, int period) {
+            BsmOutliersDetector detector = create();
+            return detector.process(y, X, period) ? detector : null;
         }
     }
 
@@ -137,7 +329,9 @@ public class BsmOutliersDetector implements IProcessingHookProvider<BsmOutliersD
     private final int maxIter;
     private final Estimation forwardEstimation, backwardEstimation;
     private final double eps, eps2, fullEstimationThreshold;
-    private final SsfOutlierDetector sod;
+    private final BsmOutlierScanner sod;
+    private final boolean parallelDerivatives, analyticScore;
+    private final ForkJoinPool pool;
     private final List<int[]> outliers = new ArrayList<>();
     private int period;
     private BsmData initialModel, model;
@@ -146,11 +340,22 @@ public class BsmOutliersDetector implements IProcessingHookProvider<BsmOutliersD
     private DoubleSeq curp;
     private Component curfixed;
     private FastMatrix regressors;
+    private RegressionWorkspace workspace;
+    // estimation context, reused between the iterations
+    private final BsmKernel kernel, kernel2;
+    private SsfData data;
+    private CountingMapping<BsmData> mapping;
     private boolean full;
+    // evaluations of the numeric derivatives in the last analytic score
+    private int numericEvaluations;
     private FastMatrix initialTau;
+    private final long budget;
+    private long deadline;
+    private boolean truncated, fullSearch;
 
     private BsmOutliersDetector(BsmSpec spec, boolean ao, boolean ls, boolean so, double cv, boolean mad,
-            int maxIter, Estimation forwardEstimation, Estimation backwardEstimation, double eps, double ft) {
+            Supplier<RobustStandardDeviationComputer> madFactory, boolean auxiliaryResiduals, boolean analyticScore, int maxIter, Estimation forwardEstimation, Estimation backwardEstimation, double eps, double ft,
+            boolean parallelDerivatives, ForkJoinPool pool, long budget) {
         this.spec = spec;
         this.ao = ao;
         this.ls = ls;
@@ -162,11 +367,105 @@ public class BsmOutliersDetector implements IProcessingHookProvider<BsmOutliersD
         this.eps = eps;
         this.eps2 = Math.sqrt(eps);
         this.fullEstimationThreshold = ft;
-        sod = new SsfOutlierDetector(mad ? RobustStandardDeviationComputer.mad() : null);
+        this.parallelDerivatives = parallelDerivatives;
+        this.analyticScore = analyticScore;
+        this.pool = pool;
+        this.budget = budget;
+        RobustStandardDeviationComputer sd = mad ? (madFactory == null ? RobustStandardDeviationComputer.mad() : madFactory.get()) : null;
+        BsmOutlierScanner regression = BsmOutlierScanner.of(new SsfOutlierDetector(sd));
+        sod = auxiliaryResiduals ? new AuxiliaryResidualsScanner(sd, regression) : regression;
+        kernel = new BsmKernel(estimationSpec(eps));
+        kernel2 = new BsmKernel(estimationSpec(eps2));
+    }
+
+    private static BsmEstimationSpec estimationSpec(double eps) {
+        return BsmEstimationSpec.builder()
+                .diffuseRegression(true)
+                .precision(eps)
+                .build();
     }
 
     public boolean process(DoubleSeq y, FastMatrix X, int period) {
         int n = y.length();
+        prepare(n, period);
+        clear();
+        deadline = System.nanoTime() + budget;
+        this.period = period;
+        workspace = new RegressionWorkspace(n, X, Math.min(maxIter, n));
+        regressors = workspace.current();
+        if (!fullEstimation(y, regressors, period, eps2)) {
+            return false;
+        }
+        initialModel = model;
+        initialLikelihood = getLikelihood();
+        return search(y, X == null ? 0 : X.getColumnsCount());
+    }
+
+    /**
+     * Re-detection for a new vintage of the series (new or revised
+     * observations at the end of the series). The outliers of the previous
+     * vintage are re-verified by means of a single (score) estimation, which
+     * starts from the previous parameters. The search of new outliers is then
+     * limited to the revision window ([revisionStart, n[). If some previous
+     * outliers are no longer significant (or if the estimation fails), the
+     * detector falls back to the usual processing (see isFullSearch).
+     * Otherwise, the model without outliers is not estimated: the initial
+     * model and likelihood are then null.
+     *
+     * @param y
+     * @param X
+     * @param period
+     * @param previous The final state of the detector for the previous
+     * vintage
+     * @param revisionStart The first new or revised observation
+     * @return
+     */
+    public boolean reprocess(DoubleSeq y, FastMatrix X, int period, Vintage previous, int revisionStart) {
+        int n = y.length();
+        prepare(n, period);
+        clear();
+        deadline = System.nanoTime() + budget;
+        this.period = period;
+        workspace = new RegressionWorkspace(n, X, Math.min(maxIter, n));
+        for (int[] o : previous.getOutliers()) {
+            if (o[0] < n) {
+                outliers.add(o.clone());
+                fill(o, workspace.add());
+            }
+        }
+        regressors = workspace.current();
+        model = previous.getModel();
+        curp = previous.getParameters();
+        curSpec = previous.getSpecification();
+        curfixed = previous.getFixed();
+        // re-verification of the previous outliers
+        boolean ok = estimate(y, regressors, Estimation.Score) && likelihood != null;
+        int nx = X == null ? 0 : X.getColumnsCount();
+        if (ok && !outliers.isEmpty()) {
+            double tcur = Math.sqrt(criticalValue(n));
+            double[] tstats = likelihood.tstats(0, false);
+            for (int j = nx; j < tstats.length; ++j) {
+                if (Math.abs(tstats[j]) <= tcur) {
+                    ok = false;
+                    break;
+                }
+            }
+        }
+        if (!ok) {
+            return process(y, X, period);
+        }
+        fullSearch = false;
+        // the model without outliers is not estimated (see getInitialModel)
+        // search limited to the revision window
+        for (int i = 0, imax = Math.min(revisionStart, n); i < imax; ++i) {
+            for (int j = 0; j < 3; ++j) {
+                sod.exclude(i, j);
+            }
+        }
+        return search(y, nx);
+    }
+
+    private void prepare(int n, int period) {
         sod.prepare(n);
         if (!ao) {
             sod.excludeType(0);
@@ -185,26 +484,55 @@ public class BsmOutliersDetector implements IProcessingHookProvider<BsmOutliersD
                 sod.exclude(j, 2);
             }
         }
-        clear();
+    }
+
+    /**
+     * Forward and backward searches, starting from the current model
+     *
+     * @param y
+     * @param nx Number of user-defined regression variables
+     * @return
+     */
+    private boolean search(DoubleSeq y, int nx) {
         int i = 0;
-        this.period = period;
-        regressors = x(y.length(), X);
-        if (!fullEstimation(y, regressors, period, eps2)) {
-            return false;
-        }
-        initialModel = model;
-        initialLikelihood = getLikelihood();
         double cvcur = cv == 0 ? criticalValue(y.length()) : cv;
         double tcur = Math.sqrt(cvcur);
         // forward recursion
-        while (i < maxIter) {
+        while (i < maxIter && !mustStop()) {
+            OutliersRoundEvent revent = new OutliersRoundEvent();
+            revent.begin();
             if (!iterate(i++, y, regressors, cvcur)) {
                 break;
             }
-            regressors = x(y.length(), X);
+            int[] last = outliers.get(outliers.size() - 1);
+            fill(last, workspace.add());
+            regressors = workspace.current();
             if (!estimate(y, regressors, forwardEstimation)) {
                 break;
             }
+            double tmax = Math.sqrt(sod.getMaxTau());
+            if (hooks.hasHooks()) {
+                HookInformation<OutlierInfo> hinfo = new HookInformation<>(new OutlierInfo(last[1], last[0], tmax, model, true));
+                hooks.processHooks(hinfo, true);
+                if (hinfo.isCancel()) {
+                    // the outlier is kept with the current model
+                    truncated = true;
+                }
+            }
+            if (revent.shouldCommit()) {
+                revent.detector = JFR_NAME;
+                revent.round = i;
+                revent.position = last[0];
+                revent.type = CODES[last[1]];
+                revent.tstat = tmax;
+                revent.added = 1;
+                revent.outliers = outliers.size();
+                revent.commit();
+            }
+        }
+        if (truncated) {
+            // the current model (last estimation) is kept as is
+            return true;
         }
         // backward recursion
 
@@ -212,11 +540,10 @@ public class BsmOutliersDetector implements IProcessingHookProvider<BsmOutliersD
             return false;
         }
         do {
-            if (regressors == null) {
+            if (regressors == null || mustStop()) {
                 break;
             }
             double[] tstats = getLikelihood().tstats(0, false);
-            int nx = X == null ? 0 : X.getColumnsCount();
             if (tstats.length == nx) {
                 break;
             }
@@ -231,8 +558,19 @@ public class BsmOutliersDetector implements IProcessingHookProvider<BsmOutliersD
             if (tmin > tcur) {
                 break;
             }
+            BackwardEliminationEvent bevent = new BackwardEliminationEvent();
+            if (bevent.shouldCommit()) {
+                int[] o = outliers.get(jmin);
+                bevent.detector = JFR_NAME;
+                bevent.position = o[0];
+                bevent.type = CODES[o[1]];
+                bevent.tstat = tstats[nx + jmin];
+                bevent.outliers = outliers.size() - 1;
+                bevent.commit();
+            }
             outliers.remove(jmin);
-            regressors = x(y.length(), X);
+            workspace.remove(nx + jmin);
+            regressors = workspace.current();
             if (!estimate(y, regressors, backwardEstimation)) {
                 break;
             }
@@ -250,9 +588,27 @@ public class BsmOutliersDetector implements IProcessingHookProvider<BsmOutliersD
         initialModel = null;
         initialLikelihood = null;
         regressors = null;
+        workspace = null;
+        data = null;
+        mapping = null;
         curp = null;
         curfixed = null;
         full = false;
+        truncated = false;
+        fullSearch = true;
+    }
+
+    /**
+     * Checks the time budget
+     *
+     * @return true if the processing must be stopped (time budget exhausted
+     * or processing cancelled)
+     */
+    private boolean mustStop() {
+        if (!truncated && budget > 0 && System.nanoTime() - deadline >= 0) {
+            truncated = true;
+        }
+        return truncated;
     }
 
     private double criticalValue(int n) {
@@ -272,7 +628,7 @@ public class BsmOutliersDetector implements IProcessingHookProvider<BsmOutliersD
 
     private boolean iterate(int round, DoubleSeq y, FastMatrix W, double curcv) {
         full = false;
-        if (!sod.process(y, model, W, 0)) {
+        if (!sod.process(y, model, W, likelihood == null ? null : likelihood.coefficients())) {
             return false;
         }
         if (round == 0) {
@@ -289,30 +645,42 @@ public class BsmOutliersDetector implements IProcessingHookProvider<BsmOutliersD
         full = gmax > fullEstimationThreshold * curcv;
 
         outliers.add(new int[]{imax, type});
-        if (hooks.hasHooks()) {
-            OutlierInfo info = new OutlierInfo(type, imax, smax, model, true);
-            hooks.processHooks(new HookInformation<>(info), false);
-        }
 
         return true;
     }
 
     private boolean fullEstimation(DoubleSeq y, FastMatrix W, int period, double eps) {
-        BsmEstimationSpec espec = BsmEstimationSpec.builder()
-                .diffuseRegression(true)
-                .precision(eps)
-                .build();
-        BsmKernel monitor = new BsmKernel(espec);
+        EstimationEvent event = new EstimationEvent();
+        event.begin();
+        numericEvaluations = 0;
+        BsmKernel monitor = eps == this.eps ? kernel : kernel2;
         monitor.process(y, W, period, spec);
+        // the mapping depends on the final specification
+        mapping = null;
         curp = monitor.maxLikelihoodFunction().getParameters();
         curfixed = monitor.fixedVariance();
         model = monitor.result(true);
         curSpec = monitor.finalSpecification(true);
         likelihood = monitor.getLikelihood();
+        commit(event, Estimation.Full, -1, W, model != null);
         return model != null;
     }
 
+    private void commit(EstimationEvent event, Estimation method, int nevals, FastMatrix W, boolean ok) {
+        if (event.shouldCommit()) {
+            event.detector = JFR_NAME;
+            event.method = method.name();
+            event.evaluations = nevals;
+            event.numericEvaluations = numericEvaluations;
+            event.variables = W == null ? 0 : W.getColumnsCount();
+            event.outliers = outliers.size();
+            event.success = ok;
+            event.commit();
+        }
+    }
+
     private void pointEstimation(DoubleSeq y, FastMatrix W) {
+        numericEvaluations = 0;
         SsfFunction<BsmData, SsfBsm2> fn = currentFunction(y, W);
         SsfFunctionPoint<BsmData, SsfBsm2> pt = fn.evaluate(curp);
         likelihood = pt.getLikelihood();
@@ -320,17 +688,22 @@ public class BsmOutliersDetector implements IProcessingHookProvider<BsmOutliersD
     }
 
     private void scoreEstimation(DoubleSeq y, FastMatrix W) {
+        numericEvaluations = 0;
         SsfFunction<BsmData, SsfBsm2> fn = currentFunction(y, W);
         SsfFunctionPoint<BsmData, SsfBsm2> pt = fn.evaluate(curp);
         try {
-            IFunctionDerivatives D = pt.derivatives();
+            Derivatives D = analyticScore ? analyticDerivatives(fn, pt, y, W) : derivatives(pt);
             FastMatrix H = D.hessian();
             DataBlock G = DataBlock.of(D.gradient());
             LinearSystemSolver.fastSolver().solve(H, G);
             DoubleSeq np = DoublesMath.subtract(curp, G);
             if (fn.getMapping().checkBoundaries(np)) {
-                curp = np;
-                pt = fn.evaluate(curp);
+                SsfFunctionPoint<BsmData, SsfBsm2> npt = fn.evaluate(np);
+                // the analytic gradient is approximate in the diffuse part
+                if (!analyticScore || npt.getLikelihood().logLikelihood() >= pt.getLikelihood().logLikelihood()) {
+                    curp = np;
+                    pt = npt;
+                }
             }
         } catch (Exception err) {
         }
@@ -338,18 +711,51 @@ public class BsmOutliersDetector implements IProcessingHookProvider<BsmOutliersD
         model = pt.getCore();
     }
 
+    private static record Derivatives(FastMatrix hessian, DoubleSeq gradient) {
+
+    }
+
+    private Derivatives analyticDerivatives(SsfFunction<BsmData, SsfBsm2> fn, SsfFunctionPoint<BsmData, SsfBsm2> pt, DoubleSeq y, FastMatrix W) {
+        DoubleSeq ylin = BsmDisturbanceSmoother.linearize(y, W, pt.getLikelihood().coefficients());
+        BsmLikelihoodScore score = new BsmLikelihoodScore(fn.getMapping(), ylin);
+        double[] g = score.gradient(curp);
+        FastMatrix H = g == null ? null : score.hessian(curp, g);
+        numericEvaluations = score.getNumericEvaluationsCount();
+        if (H == null) {
+            throw new IllegalStateException("Filter failure");
+        }
+        return new Derivatives(H, DoubleSeq.of(g));
+    }
+
+    private Derivatives derivatives(SsfFunctionPoint<BsmData, SsfBsm2> pt) {
+        if (parallelDerivatives && pool != null) {
+            // the parallel computations are executed in the given pool
+            return pool.submit(() -> {
+                IFunctionDerivatives D = pt.derivatives();
+                return new Derivatives(D.hessian(), D.gradient());
+            }).join();
+        } else {
+            IFunctionDerivatives D = pt.derivatives();
+            return new Derivatives(D.hessian(), D.gradient());
+        }
+    }
+
     private boolean estimate(DoubleSeq y, FastMatrix W, Estimation method) {
         if (full) {
             return fullEstimation(y, W, model.getPeriod(), eps2);
         }
+        EstimationEvent event = new EstimationEvent();
+        event.begin();
         try {
             switch (method) {
                 case Point -> {
                     pointEstimation(y, W);
+                    commit(event, method, mapping.getCount(), W, true);
                     return true;
                 }
                 case Score -> {
                     scoreEstimation(y, W);
+                    commit(event, method, mapping.getCount(), W, true);
                     return true;
                 }
                 default -> {
@@ -361,39 +767,35 @@ public class BsmOutliersDetector implements IProcessingHookProvider<BsmOutliersD
         }
     }
 
-    private FastMatrix x(int m, FastMatrix X) {
-        int nx = X == null ? 0 : X.getColumnsCount();
-        int nw = nx + outliers.size();
-        if (nw == 0) {
-            return null;
-        }
-        FastMatrix W = FastMatrix.make(m, nw);
-        int p = 0;
-        if (nx > 0) {
-            W.extract(0, m, 0, nx).copy(X);
-            p = nx;
-        }
-
-        for (int[] o : outliers) {
-            DataBlock col = W.column(p++);
-            switch (o[1]) {
-                case 0 ->
-                    col.set(o[0], 1);
-                case 1 ->
-                    col.drop(o[0], 0).set(1);
-                case 2 ->
-                    col.drop(o[0], 0).extract(0, -1, period).set(1);
-            }
+    /**
+     * Fills the non-zero part of the regression variable of an outlier
+     *
+     * @param o The outlier (position, type)
+     * @param col The column, initialized to 0
+     */
+    private void fill(int[] o, DataBlock col) {
+        switch (o[1]) {
+            case 0 ->
+                col.set(o[0], 1);
+            case 1 ->
+                col.drop(o[0], 0).set(1);
+            default ->
+                col.drop(o[0], 0).extract(0, -1, period).set(1);
         }
-        return W;
     }
 
     SsfFunction<BsmData, SsfBsm2> currentFunction(DoubleSeq y, FastMatrix W) {
-        BsmMapping mapper = new BsmMapping(curSpec == null ? spec : curSpec, model.getPeriod(), curfixed);
-        return SsfFunction.builder(new SsfData(y), mapper, bsmmodel -> SsfBsm2.of(bsmmodel))
+        if (data == null) {
+            data = new SsfData(y);
+        }
+        if (mapping == null) {
+            mapping = new CountingMapping<>(new BsmMapping(curSpec == null ? spec : curSpec, model.getPeriod(), curfixed));
+        }
+        mapping.reset();
+        return SsfFunction.builder(data, mapping, bsmmodel -> SsfBsm2.of(bsmmodel))
                 .regression(W, W != null ? W.getColumnsCount() : 0)
                 .useFastAlgorithm(true)
-                .useParallelProcessing(false)
+                .useParallelProcessing(parallelDerivatives)
                 .useLog(true)
                 .useScalingFactor(true)
                 .build();
@@ -413,6 +815,43 @@ public class BsmOutliersDetector implements IProcessingHookProvider<BsmOutliersD
         return model;
     }
 
+    /**
+     * Indicates that the last processing has been stopped before its normal
+     * end, because the time budget was exhausted or because a hook cancelled
+     * it. The model is then the last estimated one: the outliers have not
+     * been verified and the parameters may come from an approximate
+     * (score or point) estimation
+     *
+     * @return
+     */
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    /**
+     * Indicates that the last processing was a full search: always true after
+     * process, true after reprocess when the previous outliers couldn't be
+     * re-used
+     *
+     * @return
+     */
+    public boolean isFullSearch() {
+        return fullSearch;
+    }
+
+    /**
+     * Final state of the last processing, to be used in the re-detection of
+     * the next vintage
+     *
+     * @return null if the detector has not been (successfully) used
+     */
+    public Vintage getVintage() {
+        if (model == null || curp == null) {
+            return null;
+        }
+        return new Vintage(List.copyOf(outliers), model, curp, curSpec, curfixed);
+    }
+
     public FastMatrix initialTau(){
         return initialTau;
     }
@@ -424,6 +863,10 @@ public class BsmOutliersDetector implements IProcessingHookProvider<BsmOutliersD
     }
     
     /**
+     * Model estimated without outliers. It is not available (null) after
+     * a reprocessing that re-used the outliers of the previous vintage
+     * (isFullSearch() is false): that model is never estimated.
+     *
      * @return the initialModel
      */
     public BsmData getInitialModel() {
@@ -431,6 +874,9 @@ public class BsmOutliersDetector implements IProcessingHookProvider<BsmOutliersD
     }
 
     /**
+     * Likelihood of the model without outliers. Null when the initial model
+     * is not available (see getInitialModel)
+     *
      * @return the initialLikelihood
      */
     public DiffuseConcentratedLikelihood getInitialLikelihood() {
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2026 JDemetra+.
+ * Licensed under the EUPL, Version 1.2 or – as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ *      https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package jdplus.toolkitx.base.core.bsm;
+
+import jdplus.toolkit.base.core.data.DataBlock;
+import jdplus.toolkit.base.core.math.matrices.FastMatrix;
+
+/**
+ * Regression matrix with spare columns. New columns are appended in place
+ * and removed columns are compacted, so that the existing columns are never
+ * re-generated. The current regression matrix is a view on the first columns
+ * of the workspace; it is only valid until the next modification.
+ *
+ * @author Jean Palate
+ */
+class RegressionWorkspace {
+
+    private static final int DEF_CAPACITY = 16;
+
+    private final int n;
+    private FastMatrix storage;
+    private int ncols;
+
+    /**
+     * Creates a new workspace, initialized with the given matrix
+     *
+     * @param n Number of rows
+     * @param X Initial regression variables. May be null
+     * @param capacity Expected number of additional columns
+     */
+    RegressionWorkspace(int n, FastMatrix X, int capacity) {
+        this.n = n;
+        int nx = X == null ? 0 : X.getColumnsCount();
+        storage = FastMatrix.make(n, nx + Math.max(capacity, DEF_CAPACITY));
+        if (nx > 0) {
+            storage.extract(0, n, 0, nx).copy(X);
+        }
+        ncols = nx;
+    }
+
+    /**
+     * Appends a new column. O(n), except when the capacity is exceeded
+     *
+     * @return The new column, initialized to 0, which must be filled by the
+     * caller
+     */
+    DataBlock add() {
+        if (ncols == storage.getColumnsCount()) {
+            FastMatrix nstorage = FastMatrix.make(n, 2 * ncols);
+            nstorage.extract(0, n, 0, ncols).copy(storage);
+            storage = nstorage;
+        }
+        DataBlock col = storage.column(ncols++);
+        col.set(0);
+        return col;
+    }
+
+    /**
+     * Removes the given column by shifting the next ones
+     *
+     * @param col
+     */
+    void remove(int col) {
+        for (int j = col + 1; j < ncols; ++j) {
+            storage.column(j - 1).copy(storage.column(j));
+        }
+        --ncols;
+    }
+
+    int getColumnsCount() {
+        return ncols;
+    }
+
+    /**
+     * The current regression matrix
+     *
+     * @return null if there is no regression variable
+     */
+    FastMatrix current() {
+        return ncols == 0 ? null : storage.extract(0, n, 0, ncols);
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2026 JDemetra+.
+ * Licensed under the EUPL, Version 1.2 or – as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ *      https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package jdplus.toolkitx.base.core.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Removal of a non significant outlier in the backward search
+ *
+ * @author Jean Palate
+ */
+@Name("jdplus.toolkitx.BackwardElimination")
+@Label("Backward Elimination")
+@Category({"JDemetra+", "Outliers"})
+@Description("Removal of a non significant outlier in the backward search")
+@StackTrace(false)
+public final class BackwardEliminationEvent extends Event {
+
+    @Label("Detector")
+    public String detector;
+
+    @Label("Position")
+    public int position;
+
+    @Label("Type")
+    public String type;
+
+    @Label("T-Stat")
+    public double tstat;
+
+    @Label("Outliers")
+    @Description("Number of remaining outliers")
+    public int outliers;
+}
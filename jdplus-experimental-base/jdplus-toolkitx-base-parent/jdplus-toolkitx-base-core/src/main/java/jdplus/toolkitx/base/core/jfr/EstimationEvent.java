@@ -0,0 +1,60 @@
+/*
+ * Copyright 2026 JDemetra+.
+ * Licensed under the EUPL, Version 1.2 or – as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ *      https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package jdplus.toolkitx.base.core.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * (Re-)estimation of the model in an outliers detector
+ *
+ * @author Jean Palate
+ */
+@Name("jdplus.toolkitx.Estimation")
+@Label("Model Estimation")
+@Category({"JDemetra+", "Outliers"})
+@Description("(Re-)estimation of the model in an outliers detector")
+@StackTrace(false)
+public final class EstimationEvent extends Event {
+
+    @Label("Detector")
+    public String detector;
+
+    @Label("Method")
+    @Description("Full, Score, Point (BSM); Full, Optimize, Incremental (RegArima)")
+    public String method;
+
+    @Label("Evaluations")
+    @Description("Number of likelihood evaluations (-1 if unknown)")
+    public int evaluations;
+
+    @Label("Numeric Evaluations")
+    @Description("Evaluations used in the numeric derivatives of an analytic score (cycle parameters), included in the evaluations")
+    public int numericEvaluations;
+
+    @Label("Regression Variables")
+    public int variables;
+
+    @Label("Outliers")
+    public int outliers;
+
+    @Label("Success")
+    public boolean success;
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2026 JDemetra+.
+ * Licensed under the EUPL, Version 1.2 or – as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ *      https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package jdplus.toolkitx.base.core.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Round of the forward search of an outliers detector (detection of the new
+ * outlier(s) and re-estimation of the model)
+ *
+ * @author Jean Palate
+ */
+@Name("jdplus.toolkitx.OutliersRound")
+@Label("Outliers Round")
+@Category({"JDemetra+", "Outliers"})
+@Description("Round of the forward search of an outliers detector")
+@StackTrace(false)
+public final class OutliersRoundEvent extends Event {
+
+    @Label("Detector")
+    public String detector;
+
+    @Label("Round")
+    public int round;
+
+    @Label("Position")
+    @Description("Position of the most significant new outlier")
+    public int position;
+
+    @Label("Type")
+    @Description("Type of the most significant new outlier")
+    public String type;
+
+    @Label("T-Stat")
+    public double tstat;
+
+    @Label("Added")
+    @Description("Number of outliers added in the round")
+    public int added;
+
+    @Label("Outliers")
+    @Description("Total number of outliers at the end of the round")
+    public int outliers;
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2026 JDemetra+.
+ * Licensed under the EUPL, Version 1.2 or – as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ *      https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package jdplus.toolkitx.base.core.math.functions;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import jdplus.toolkit.base.api.data.DoubleSeq;
+import jdplus.toolkit.base.core.arima.IArimaModel;
+import jdplus.toolkit.base.core.arima.estimation.IArimaMapping;
+import jdplus.toolkit.base.core.math.functions.IParametricMapping;
+
+/**
+ * Mapping that counts the number of generated models, which is the number of
+ * likelihood evaluations done by the optimizer. The counter is thread-safe
+ *
+ * @author Jean Palate
+ * @param <T>
+ */
+public class CountingMapping<T> implements IParametricMapping<T> {
+
+    @lombok.experimental.Delegate(excludes = Mapped.class)
+    private final IParametricMapping<T> mapping;
+
+    private final AtomicInteger count = new AtomicInteger();
+
+    public CountingMapping(IParametricMapping<T> mapping) {
+        this.mapping = mapping;
+    }
+
+    @Override
+    public T map(DoubleSeq p) {
+        count.incrementAndGet();
+        return mapping.map(p);
+    }
+
+    public int getCount() {
+        return count.get();
+    }
+
+    public void reset() {
+        count.set(0);
+    }
+
+    /**
+     * Counting mapping of Arima models, which can be used by the RegArima
+     * processors. The stationary mapping is not counted
+     *
+     * @param <M>
+     */
+    public static class Arima<M extends IArimaModel> extends CountingMapping<M> implements IArimaMapping<M> {
+
+        @lombok.experimental.Delegate(excludes = IParametricMapping.class)
+        private final IArimaMapping<M> arima;
+
+        public Arima(IArimaMapping<M> mapping) {
+            super(mapping);
+            this.arima = mapping;
+        }
+    }
+
+    private static interface Mapped<T> {
+
+        T map(DoubleSeq p);
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2026 JDemetra+.
+ * Licensed under the EUPL, Version 1.2 or – as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ *      https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package jdplus.toolkitx.base.core.stats;
+
+import jdplus.toolkit.base.api.data.DoubleSeq;
+import jdplus.toolkit.base.core.stats.RobustStandardDeviationComputer;
+import nbbrd.design.Development;
+
+/**
+ * Median absolute deviation (centered on the median), computed by means of
+ * linear-time selection instead of sorting. The medians found in the
+ * previous call are used as warm starts: when the new values are close to the
+ * previous ones (successive rounds of an outliers detection), the selection is
+ * limited to the few values in a band around the previous medians. Otherwise,
+ * a full selection is done.
+ * The computer keeps a state and re-uses its buffers: an instance should not
+ * be shared between threads.
+ *
+ * @author Jean Palate
+ */
+@Development(status = Development.Status.Preliminary)
+public final class SelectionMadComputer implements RobustStandardDeviationComputer {
+
+    /**
+     * Quantile 0.75 of the standard normal distribution
+     */
+    private static final double Q75 = 0.6744897501960817;
+    /**
+     * Half-width of the band, relatively to the previous MAD
+     */
+    private static final double BAND = .25;
+
+    private double[] values = new double[0], work = new double[0];
+    private double lastMedian = Double.NaN, lastMad = Double.NaN;
+
+    @Override
+    public double compute(DoubleSeq data) {
+        int n = data.length();
+        if (n == 0) {
+            return Double.NaN;
+        }
+        if (values.length < n) {
+            values = new double[n];
+            work = new double[n];
+        }
+        data.copyTo(values, 0);
+        double median = median(n, lastMedian, lastMad);
+        for (int i = 0; i < n; ++i) {
+            values[i] = Math.abs(values[i] - median);
+        }
+        double mad = median(n, lastMad, lastMad);
+        lastMedian = median;
+        lastMad = mad;
+        return mad / Q75;
+    }
+
+    /**
+     * Forgets the medians of the previous call
+     */
+    public void reset() {
+        lastMedian = Double.NaN;
+        lastMad = Double.NaN;
+    }
+
+    /**
+     * Median of values[0, n[ (mean of the two middle values when n is even)
+     *
+     * @param n
+     * @param guess Previous median (NaN if unknown)
+     * @param scale Previous scale, used for the width of the band
+     * @return
+     */
+    private double median(int n, double guess, double scale) {
+        int k = n / 2;
+        boolean even = (n & 1) == 0;
+        if (Double.isFinite(guess) && scale > 0) {
+            double lo = guess - BAND * scale, hi = guess + BAND * scale;
+            int below = 0, m = 0;
+            for (int i = 0; i < n; ++i) {
+                double x = values[i];
+                if (x < lo) {
+                    ++below;
+                } else if (x <= hi) {
+                    work[m++] = x;
+                }
+            }
+            int kk = k - below;
+            if (kk >= (even ? 1 : 0) && kk < m) {
+                return median(kk, m, even);
+            }
+        }
+        System.arraycopy(values, 0, work, 0, n);
+        return median(k, n, even);
+    }
+
+    private double median(int k, int m, boolean even) {
+        double upper = select(work, m, k);
+        if (!even) {
+            return upper;
+        }
+        // after the selection, work[0, k[ contains the k smallest values
+        double lower = work[0];
+        for (int i = 1; i < k; ++i) {
+            if (work[i] > lower) {
+                lower = work[i];
+            }
+        }
+        return (lower + upper) / 2;
+    }
+
+    /**
+     * Quickselect (median-of-three pivot, three-way partition). Partially
+     * reorders a[0, n[, so that a[k] is the (k+1)-th smallest value, a[0, k[
+     * the smaller (or equal) values and a]k, n[ the larger (or equal) values.
+     * The values equal to the pivot are grouped in the middle of the range,
+     * so that heavily tied data (rounded values, absolute deviations of
+     * constant segments) don't degrade the selection
+     *
+     * @param a
+     * @param n
+     * @param k
+     * @return a[k]
+     */
+    static double select(double[] a, int n, int k) {
+        int l = 0, r = n - 1;
+        while (r > l) {
+            int mid = (l + r) >>> 1;
+            // median of three as pivot
+            if (a[mid] < a[l]) {
+                swap(a, mid, l);
+            }
+            if (a[r] < a[l]) {
+                swap(a, r, l);
+            }
+            if (a[mid] < a[r]) {
+                swap(a, mid, r);
+            }
+            double pivot = a[r];
+            // a[l, lt[ < pivot, a[lt, i[ == pivot, a]gt, r] > pivot
+            int lt = l, i = l, gt = r;
+            while (i <= gt) {
+                double x = a[i];
+                if (x < pivot) {
+                    swap(a, lt++, i++);
+                } else if (x > pivot) {
+                    swap(a, i, gt--);
+                } else {
+                    ++i;
+                }
+            }
+            if (k < lt) {
+                r = lt - 1;
+            } else if (k > gt) {
+                l = gt + 1;
+            } else {
+                return a[k];
+            }
+        }
+        return a[k];
+    }
+
+    private static void swap(double[] a, int i, int j) {
+        double tmp = a[i];
+        a[i] = a[j];
+        a[j] = tmp;
+    }
+}
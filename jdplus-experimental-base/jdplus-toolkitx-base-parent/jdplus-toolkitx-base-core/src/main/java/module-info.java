@@ -10,8 +10,11 @@ module jdplus.toolkitx.base.core {
     requires jdplus.sts.base.api;
     requires jdplus.sts.base.core;
     requires jdplus.toolkitx.base.api;
+    requires jdk.jfr;
 
 
     exports jdplus.toolkitx.base.core.arima;
     exports jdplus.toolkitx.base.core.bsm;
+    exports jdplus.toolkitx.base.core.jfr;
+    exports jdplus.toolkitx.base.core.stats;
 }
\ No newline at end of file
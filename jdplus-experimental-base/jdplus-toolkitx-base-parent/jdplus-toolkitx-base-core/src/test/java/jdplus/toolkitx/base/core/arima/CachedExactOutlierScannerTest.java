@@ -0,0 +1,123 @@
+/*
+ * Copyright 2026 JDemetra+.
+ * Licensed under the EUPL, Version 1.2 or – as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ *      https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package jdplus.toolkitx.base.core.arima;
+
+import jdplus.toolkit.base.api.data.DoubleSeq;
+import jdplus.toolkit.base.core.regarima.RegArimaModel;
+import jdplus.toolkit.base.core.regarima.outlier.SingleOutlierDetector;
+import jdplus.toolkit.base.core.sarima.SarimaModel;
+import jdplus.toolkit.base.core.stats.RobustStandardDeviationComputer;
+import tck.demetra.data.Data;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ *
+ * @author Jean Palate
+ */
+public class CachedExactOutlierScannerTest {
+
+    public CachedExactOutlierScannerTest() {
+    }
+
+    @Test
+    public void testExact() {
+        double[] y = Data.PROD;
+        int n = y.length;
+        // mean and an outlier: the t-stats must take them into account
+        RegArimaModel<SarimaModel> model = RegArimaModel.<SarimaModel>builder()
+                .y(DoubleSeq.of(y))
+                .arima(SimulatedSeries.airline())
+                .meanCorrection(true)
+                .addX(SimulatedSeries.regressor(n, 50, 1))
+                .build();
+
+        SingleOutlierDetector<SarimaModel> exact = SimulatedSeries.detector();
+        exact.prepare(n);
+        exact.setBounds(0, n);
+        exact.exclude(50, 1);
+        assertTrue(exact.process(model));
+
+        CachedExactOutlierScanner<SarimaModel> cached = new CachedExactOutlierScanner<>(SimulatedSeries.factories(), RobustStandardDeviationComputer.mad());
+        cached.prepare(n);
+        cached.setBounds(0, n);
+        cached.exclude(50, 1);
+        assertTrue(cached.process(model));
+
+        double tmax = exact.getMaxTStat();
+        assertEquals(tmax, cached.getMaxTStat(), 1e-6 * Math.abs(tmax));
+        assertEquals(exact.getMaxOutlierPosition(), cached.getMaxOutlierPosition());
+        assertEquals(exact.getMaxOutlierType(), cached.getMaxOutlierType());
+    }
+
+    @Test
+    public void testMissing() {
+        double[] y = Data.PROD.clone();
+        int n = y.length;
+        y[30] = Double.NaN;
+        RegArimaModel<SarimaModel> model = RegArimaModel.<SarimaModel>builder()
+                .y(DoubleSeq.of(y))
+                .arima(SimulatedSeries.airline())
+                .meanCorrection(true)
+                .build();
+
+        SingleOutlierDetector<SarimaModel> exact = SimulatedSeries.detector();
+        exact.prepare(n);
+        exact.setBounds(0, n);
+        assertTrue(exact.process(model));
+
+        // no fallback: the model is rejected
+        CachedExactOutlierScanner<SarimaModel> cached = new CachedExactOutlierScanner<>(SimulatedSeries.factories(), RobustStandardDeviationComputer.mad());
+        cached.prepare(n);
+        assertFalse(cached.process(model));
+
+        cached = new CachedExactOutlierScanner<>(SimulatedSeries.factories(), RobustStandardDeviationComputer.mad(), SimulatedSeries.detector());
+        cached.prepare(n);
+        assertTrue(cached.process(model));
+        assertTrue(cached.isFallbackUsed());
+        assertEquals(exact.getMaxTStat(), cached.getMaxTStat());
+        assertEquals(exact.getMaxOutlierPosition(), cached.getMaxOutlierPosition());
+        assertEquals(exact.getMaxOutlierType(), cached.getMaxOutlierType());
+        assertArrayEquals(exact.getT().toArray(), cached.getT().toArray());
+    }
+
+    @Test
+    public void testParallel() {
+        double[] y = Data.PROD;
+        int n = y.length;
+        RegArimaModel<SarimaModel> model = RegArimaModel.<SarimaModel>builder()
+                .y(DoubleSeq.of(y))
+                .arima(SimulatedSeries.airline())
+                .meanCorrection(true)
+                .build();
+
+        CachedExactOutlierScanner<SarimaModel> cached = new CachedExactOutlierScanner<>(SimulatedSeries.factories(), RobustStandardDeviationComputer.mad());
+        cached.prepare(n);
+        assertTrue(cached.process(model));
+        ParallelOutlierScanner<SarimaModel> parallel = new ParallelOutlierScanner<>(SimulatedSeries.factories(), RobustStandardDeviationComputer.mad(), null, 5, null);
+        parallel.prepare(n);
+        assertTrue(parallel.process(model));
+
+        // same computations, in another order
+        assertEquals(cached.getMaxTStat(), parallel.getMaxTStat());
+        assertEquals(cached.getMaxOutlierPosition(), parallel.getMaxOutlierPosition());
+        assertEquals(cached.getMaxOutlierType(), parallel.getMaxOutlierType());
+        assertArrayEquals(cached.getT().toArray(), parallel.getT().toArray());
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2026 JDemetra+.
+ * Licensed under the EUPL, Version 1.2 or – as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ *      https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package jdplus.toolkitx.base.core.arima;
+
+import jdplus.toolkit.base.api.arima.SarimaOrders;
+import jdplus.toolkit.base.api.data.DoubleSeq;
+import jdplus.toolkit.base.api.data.DoublesMath;
+import jdplus.toolkit.base.core.arima.estimation.ArmaFilter;
+import jdplus.toolkit.base.core.data.DataBlock;
+import jdplus.toolkit.base.core.sarima.SarimaModel;
+import tck.demetra.data.Data;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ *
+ * @author Jean Palate
+ */
+public class ChandrasekharFilterTest {
+
+    public ChandrasekharFilterTest() {
+    }
+
+    @Test
+    public void testMa() {
+        SarimaOrders spec = new SarimaOrders(12);
+        spec.setQ(1);
+        spec.setBq(1);
+        SarimaModel ma = SarimaModel.builder(spec).theta(1, -.6).btheta(1, -.8).build();
+        DoubleSeq y = DoubleSeq.of(Data.PROD).delta(1).delta(12);
+        int n = y.length();
+
+        ArmaFilter ansley = ArmaFilter.ansley();
+        int na = ansley.prepare(ma, n);
+        DataBlock ea = DataBlock.make(na);
+        ansley.apply(y, ea);
+
+        ChandrasekharFilter exact = new ChandrasekharFilter(0);
+        exact.prepare(ma, n);
+        DataBlock ee = DataBlock.make(n);
+        exact.apply(y, ee);
+        assertEquals(n, exact.getSteadyStatePosition());
+        assertEquals(ansley.getLogDeterminant(), exact.getLogDeterminant(), 1e-9);
+        assertEquals(ea.ssq(), ee.ssq(), 1e-9 * ea.ssq());
+
+        ChandrasekharFilter steady = new ChandrasekharFilter();
+        steady.prepare(ma, n);
+        DataBlock es = DataBlock.make(n);
+        steady.apply(y, es);
+        assertEquals(exact.getLogDeterminant(), steady.getLogDeterminant(), 1e-6);
+        assertTrue(DoublesMath.subtract(ee, es).norm2() < 1e-6 * ee.norm2());
+    }
+
+    @Test
+    public void testArma() {
+        SarimaOrders spec = new SarimaOrders(12);
+        spec.setP(2);
+        spec.setQ(1);
+        spec.setBp(1);
+        spec.setBq(1);
+        SarimaModel arma = SarimaModel.builder(spec).phi(-.3, .2).bphi(-.4).theta(1, -.6).btheta(1, -.8).build();
+        DoubleSeq y = DoubleSeq.of(Data.PROD).delta(1).delta(12);
+        int n = y.length();
+
+        ArmaFilter ansley = ArmaFilter.ansley();
+        int na = ansley.prepare(arma, n);
+        DataBlock ea = DataBlock.make(na);
+        ansley.apply(y, ea);
+
+        ChandrasekharFilter chandrasekhar = new ChandrasekharFilter();
+        chandrasekhar.prepare(arma, n);
+        DataBlock ec = DataBlock.make(n);
+        chandrasekhar.apply(y, ec);
+        assertEquals(ansley.getLogDeterminant(), chandrasekhar.getLogDeterminant(), 1e-6);
+        assertEquals(ea.ssq(), ec.ssq(), 1e-6 * ea.ssq());
+    }
+}
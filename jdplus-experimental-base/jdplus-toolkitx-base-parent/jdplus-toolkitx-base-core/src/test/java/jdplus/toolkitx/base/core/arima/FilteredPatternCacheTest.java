@@ -0,0 +1,72 @@
+/*
+ * Copyright 2026 JDemetra+.
+ * Licensed under the EUPL, Version 1.2 or – as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ *      https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package jdplus.toolkitx.base.core.arima;
+
+import jdplus.toolkit.base.api.data.DoubleSeq;
+import jdplus.toolkit.base.api.data.DoublesMath;
+import jdplus.toolkit.base.core.arima.IArimaModel;
+import jdplus.toolkit.base.core.arima.estimation.ArmaFilter;
+import jdplus.toolkit.base.core.data.DataBlock;
+import jdplus.toolkit.base.core.sarima.SarimaModel;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ *
+ * @author Jean Palate
+ */
+public class FilteredPatternCacheTest {
+
+    public FilteredPatternCacheTest() {
+    }
+
+    @Test
+    public void testRegressors() {
+        int n = 180;
+        SarimaModel airline = SimulatedSeries.airline();
+        IArimaModel arma = SimulatedSeries.model(new double[n]).differencedModel().getArma();
+        double[] delta = airline.getNonStationaryAr().coefficients().toArray();
+        int nd = n - delta.length + 1;
+        FilteredPatternCache cache = new FilteredPatternCache(arma, delta, n, SimulatedSeries.factories());
+        cache.initialize();
+
+        ArmaFilter ansley = ArmaFilter.ansley();
+        int nl = ansley.prepare(arma, nd);
+        for (int type = 0; type < 3; ++type) {
+            for (int pos : new int[]{0, 1, 13, 40, 90, 150, n - 2, n - 1}) {
+                DoubleSeq x = SimulatedSeries.regressor(n, pos, type);
+                DataBlock fx = DataBlock.make(nl);
+                ansley.apply(difference(x, delta), fx);
+                DoubleSeq cx = DoubleSeq.of(cache.regressor(type, pos));
+                assertTrue(DoublesMath.subtract(fx, cx).norm2() <= 1e-6 * (1 + fx.norm2()));
+                assertTrue(Math.abs(fx.ssq() - cache.ssq(type, pos)) <= 1e-6 * (1 + fx.ssq()));
+            }
+        }
+    }
+
+    private static DoubleSeq difference(DoubleSeq x, double[] delta) {
+        int d = delta.length - 1, nd = x.length() - d;
+        double[] dx = new double[nd];
+        for (int t = 0; t < nd; ++t) {
+            double s = 0;
+            for (int i = 0; i <= d; ++i) {
+                s += delta[i] * x.get(t + d - i);
+            }
+            dx[t] = s;
+        }
+        return DoubleSeq.of(dx);
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2026 JDemetra+.
+ * Licensed under the EUPL, Version 1.2 or – as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ *      https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package jdplus.toolkitx.base.core.arima;
+
+import jdplus.toolkit.base.api.data.DoubleSeq;
+import jdplus.toolkit.base.core.regarima.RegArimaModel;
+import jdplus.toolkit.base.core.regarima.estimation.ConcentratedLikelihoodComputer;
+import jdplus.toolkit.base.core.sarima.SarimaModel;
+import jdplus.toolkit.base.core.stats.likelihood.ConcentratedLikelihoodWithMissing;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ *
+ * @author Jean Palate
+ */
+public class IncrementalConcentratedLikelihoodTest {
+
+    public IncrementalConcentratedLikelihoodTest() {
+    }
+
+    @Test
+    public void testUpdates() {
+        int n = 180;
+        double[] y = SimulatedSeries.series(n, 1, SimulatedSeries.OUTLIERS);
+        RegArimaModel<SarimaModel> model = SimulatedSeries.model(y).toBuilder()
+                .meanCorrection(true)
+                .build();
+        DoubleSeq ao = SimulatedSeries.regressor(n, 40, 0), ls = SimulatedSeries.regressor(n, 85, 1),
+                tc = SimulatedSeries.regressor(n, 130, 2), ao2 = SimulatedSeries.regressor(n, 100, 0),
+                ls2 = SimulatedSeries.regressor(n, 20, 1);
+
+        IncrementalConcentratedLikelihood ll = IncrementalConcentratedLikelihood.of(model);
+        assertNotNull(ll);
+        // variables: mean, ao, ls, tc
+        ll.add(ao);
+        ll.add(ls);
+        ll.add(tc);
+        // mean, ao, tc
+        ll.remove(2);
+        // mean, ao, tc, ao2
+        ll.add(ao2);
+        // mean, tc, ao2
+        ll.remove(1);
+        // mean, tc, ao2, ls2
+        ll.add(ls2);
+
+        RegArimaModel<SarimaModel> full = model.toBuilder()
+                .addX(tc)
+                .addX(ao2)
+                .addX(ls2)
+                .build();
+        ConcentratedLikelihoodWithMissing cll = ConcentratedLikelihoodComputer.DEFAULT_COMPUTER.compute(full);
+        assertEquals(cll.dim(), ll.dim());
+        assertEquals(cll.ssq(), ll.ssq(), 1e-9 * cll.ssq());
+        DoubleSeq b = cll.coefficients();
+        double[] bi = ll.coefficients();
+        assertEquals(b.length(), bi.length);
+        for (int i = 0; i < bi.length; ++i) {
+            assertEquals(b.get(i), bi[i], 1e-7 * (1 + Math.abs(b.get(i))));
+        }
+        double[] t = cll.tstats(0, true), ti = ll.tstats(true);
+        for (int i = 0; i < ti.length; ++i) {
+            assertEquals(t[i], ti[i], 1e-7 * (1 + Math.abs(t[i])));
+        }
+    }
+}
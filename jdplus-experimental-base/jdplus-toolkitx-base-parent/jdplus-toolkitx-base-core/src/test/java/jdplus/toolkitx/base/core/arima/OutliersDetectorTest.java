@@ -0,0 +1,273 @@
+/*
+ * Copyright 2026 JDemetra+.
+ * Licensed under the EUPL, Version 1.2 or – as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ *      https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package jdplus.toolkitx.base.core.arima;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import jdplus.toolkit.base.core.regarima.RegArimaModel;
+import jdplus.toolkit.base.core.sarima.SarimaModel;
+import jdplus.toolkit.base.core.sarima.estimation.SarimaMapping;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ *
+ * @author Jean Palate
+ */
+public class OutliersDetectorTest {
+
+    private static final double CV = 3.5;
+
+    public OutliersDetectorTest() {
+    }
+
+    @Test
+    public void testIncremental() {
+        RegArimaModel<SarimaModel> model = SimulatedSeries.model(SimulatedSeries.series(180, 1, SimulatedSeries.OUTLIERS));
+        int[][] o = SimulatedSeries.process(SimulatedSeries.builder(CV).build(), model);
+        int[][] oi = SimulatedSeries.process(SimulatedSeries.builder(CV).incremental(true).build(), model);
+        assertTrue(o.length > 0);
+        assertArrayEquals(o, oi);
+    }
+
+    @Test
+    public void testSinglePassBackward() {
+        double[] y = SimulatedSeries.series(180, 3, SimulatedSeries.OUTLIERS);
+        // moderate outliers, close to the critical value, which may be
+        // removed in the backward search
+        y[60] += 4;
+        y[110] -= 4;
+        y[150] += 3.5;
+        RegArimaModel<SarimaModel> model = SimulatedSeries.model(y);
+        OutliersDetector od = SimulatedSeries.builder(CV).build();
+        int[][] o = SimulatedSeries.process(od, model);
+        OutliersDetector sod = SimulatedSeries.builder(CV).singlePassBackward(true).build();
+        int[][] os = SimulatedSeries.process(sod, model);
+        assertTrue(o.length >= SimulatedSeries.OUTLIERS.length);
+        assertArrayEquals(o, os);
+        assertEquals(od.getRegArima().arima().theta(1), sod.getRegArima().arima().theta(1), 1e-4);
+    }
+
+    @Test
+    public void testParallelScoring() {
+        RegArimaModel<SarimaModel> model = SimulatedSeries.model(SimulatedSeries.series(180, 1, SimulatedSeries.OUTLIERS));
+        int[][] o = SimulatedSeries.process(SimulatedSeries.builder(CV).build(), model);
+        int[][] oc = SimulatedSeries.process(SimulatedSeries.builder(CV).cachedExactScoring(true).build(), model);
+        int[][] op = SimulatedSeries.process(SimulatedSeries.builder(CV).cachedExactScoring(true).parallelScoring(4).build(), model);
+        assertTrue(o.length > 0);
+        assertArrayEquals(oc, op);
+        assertArrayEquals(o, op);
+
+        // the parallel scoring keeps the configured (fast) detector
+        double[] y = SimulatedSeries.series(180, 3, SimulatedSeries.OUTLIERS);
+        y[60] += 4;
+        y[110] -= 4;
+        model = SimulatedSeries.model(y);
+        int[][] of = SimulatedSeries.process(SimulatedSeries.builder(CV).singleOutlierDetectorFactory(SimulatedSeries::fastDetector).build(), model);
+        int[][] ofp = SimulatedSeries.process(SimulatedSeries.builder(CV).singleOutlierDetectorFactory(SimulatedSeries::fastDetector).parallelScoring(4).build(), model);
+        assertTrue(of.length > 0);
+        assertArrayEquals(of, ofp);
+    }
+
+    @Test
+    public void testWarmStart() {
+        RegArimaModel<SarimaModel> model = SimulatedSeries.model(SimulatedSeries.series(180, 1, SimulatedSeries.OUTLIERS));
+        for (boolean warm : new boolean[]{false, true}) {
+            OutliersDetector od = SimulatedSeries.builder(CV).warmStart(warm).build();
+            List<OutliersDetector.OutlierInfo> infos = new ArrayList<>();
+            od.register((hook, cancel) -> infos.add(hook.getInformation()));
+            SimulatedSeries.process(od, model);
+            assertFalse(infos.isEmpty());
+            for (OutliersDetector.OutlierInfo info : infos) {
+                assertEquals(warm, info.isWarmStarted());
+                assertTrue(info.getEvaluations() > 0);
+            }
+        }
+        // incremental updates: no estimation (unless the update fails)
+        OutliersDetector od = SimulatedSeries.builder(CV).warmStart(true).incremental(true).build();
+        List<OutliersDetector.OutlierInfo> infos = new ArrayList<>();
+        od.register((hook, cancel) -> infos.add(hook.getInformation()));
+        SimulatedSeries.process(od, model);
+        assertFalse(infos.isEmpty());
+        for (OutliersDetector.OutlierInfo info : infos) {
+            assertEquals(info.getEvaluations() > 0, info.isWarmStarted());
+        }
+    }
+
+    @Test
+    public void testMultipleOutliersPerRound() {
+        // two close outliers
+        int[][] injected = {{40, 0}, {43, 0}, {85, 1}, {130, 2}};
+        RegArimaModel<SarimaModel> model = SimulatedSeries.model(SimulatedSeries.series(180, 2, injected));
+
+        // spacing: a single round, all the candidates above cv
+        OutliersDetector od = SimulatedSeries.builder(CV)
+                .multipleOutliersPerRound(true)
+                .minimumSpacing(5)
+                .maxRound(1)
+                .build();
+        List<int[]> added = added(od);
+        SimulatedSeries.process(od, model);
+        assertTrue(added.size() > 1);
+        for (int i = 0; i < added.size(); ++i) {
+            for (int j = 0; j < i; ++j) {
+                assertTrue(Math.abs(added.get(i)[0] - added.get(j)[0]) >= 5);
+            }
+        }
+
+        // cap: at most maxOutliers candidates in a round
+        od = SimulatedSeries.builder(CV)
+                .multipleOutliersPerRound(true)
+                .maxOutliers(2)
+                .build();
+        added = added(od);
+        SimulatedSeries.process(od, model);
+        assertEquals(2, added.size());
+        assertTrue(od.getOutliersCount() <= 2);
+    }
+
+    @Test
+    public void testMaxRound() {
+        RegArimaModel<SarimaModel> model = SimulatedSeries.model(SimulatedSeries.series(180, 1, SimulatedSeries.OUTLIERS));
+        // one round, with a large number of outliers
+        OutliersDetector od = SimulatedSeries.builder(CV)
+                .maxRound(1)
+                .maxOutliers(50)
+                .build();
+        List<int[]> added = added(od);
+        SimulatedSeries.process(od, model);
+        assertEquals(1, od.getMaxIter());
+        assertEquals(1, added.size());
+        assertTrue(od.getOutliersCount() <= 1);
+
+        // a large number of rounds, with one outlier
+        od = SimulatedSeries.builder(CV)
+                .maxRound(100)
+                .maxOutliers(1)
+                .build();
+        added = added(od);
+        SimulatedSeries.process(od, model);
+        assertEquals(100, od.getMaxIter());
+        assertEquals(1, added.size());
+    }
+
+    @Test
+    public void testConfiguration() {
+        RegArimaModel<SarimaModel> model1 = SimulatedSeries.model(SimulatedSeries.series(180, 1, SimulatedSeries.OUTLIERS));
+        RegArimaModel<SarimaModel> model2 = SimulatedSeries.model(SimulatedSeries.series(180, 2, SimulatedSeries.OUTLIERS));
+        OutliersDetector.Configuration config = SimulatedSeries.builder(CV).configuration();
+        // the same configuration, re-used by two detectors
+        OutliersDetector od1 = config.process(model1, SarimaMapping.of(model1.arima().orders()));
+        OutliersDetector od2 = config.process(model2, SarimaMapping.of(model2.arima().orders()));
+        int[][] o1 = SimulatedSeries.process(SimulatedSeries.builder(CV).build(), model1);
+        int[][] o2 = SimulatedSeries.process(SimulatedSeries.builder(CV).build(), model2);
+        assertTrue(o1.length > 0);
+        assertTrue(o2.length > 0);
+        assertArrayEquals(o1, SimulatedSeries.sorted(od1.getOutliers()));
+        assertArrayEquals(o2, SimulatedSeries.sorted(od2.getOutliers()));
+
+        // build() goes through the same configuration
+        config = SimulatedSeries.builder(CV)
+                .maxRound(3)
+                .maxOutliers(7)
+                .configuration();
+        assertEquals(3, config.getMaxRound());
+        assertEquals(7, config.getMaxOutliers());
+        assertEquals(3, config.create().getMaxIter());
+    }
+
+    @Test
+    public void testTimeBudget() {
+        RegArimaModel<SarimaModel> model = SimulatedSeries.model(SimulatedSeries.series(180, 1, SimulatedSeries.OUTLIERS));
+        OutliersDetector od = SimulatedSeries.builder(CV)
+                .timeBudget(Duration.ofNanos(1))
+                .build();
+        int[][] o = SimulatedSeries.process(od, model);
+        assertTrue(od.isTruncated());
+        // the initial model, without outliers
+        assertEquals(0, o.length);
+        assertEquals(0, od.getRegArima().getX().size());
+
+        od = SimulatedSeries.builder(CV)
+                .timeBudget(Duration.ofMinutes(10))
+                .build();
+        o = SimulatedSeries.process(od, model);
+        assertFalse(od.isTruncated());
+        assertArrayEquals(SimulatedSeries.process(SimulatedSeries.builder(CV).build(), model), o);
+    }
+
+    @Test
+    public void testCancel() {
+        RegArimaModel<SarimaModel> model = SimulatedSeries.model(SimulatedSeries.series(180, 1, SimulatedSeries.OUTLIERS));
+        OutliersDetector od = SimulatedSeries.builder(CV).build();
+        List<int[]> added = new ArrayList<>();
+        od.register((hook, cancancel) -> {
+            OutliersDetector.OutlierInfo info = hook.getInformation();
+            if (info.isAdded()) {
+                added.add(new int[]{info.getPos(), info.getType()});
+                // the hook is called once the outlier is in the model
+                assertEquals(added.size(), info.getRegarima().getX().size());
+                hook.setCancel(true);
+            }
+        });
+        int[][] o = SimulatedSeries.process(od, model);
+        assertTrue(od.isTruncated());
+        // the outlier notified to the hook is kept, with its model
+        assertEquals(1, added.size());
+        assertEquals(1, o.length);
+        assertArrayEquals(added.get(0), o[0]);
+        assertEquals(1, od.getRegArima().getX().size());
+    }
+
+    @Test
+    public void testReprocess() {
+        int n = 180, k = 12;
+        RegArimaModel<SarimaModel> model = SimulatedSeries.model(SimulatedSeries.series(n, 1, SimulatedSeries.OUTLIERS));
+        OutliersDetector od = SimulatedSeries.builder(CV).build();
+        int[][] previous = SimulatedSeries.process(od, model);
+        SarimaModel arima = od.getRegArima().arima();
+        assertTrue(previous.length > 0);
+
+        // the same series, extended by k observations
+        RegArimaModel<SarimaModel> nmodel = SimulatedSeries.model(SimulatedSeries.series(n + k, 1, SimulatedSeries.OUTLIERS));
+        int[][] o = SimulatedSeries.process(SimulatedSeries.builder(CV).build(), nmodel);
+
+        OutliersDetector rod = SimulatedSeries.builder(CV).build();
+        rod.prepare(n + k);
+        rod.setBounds(0, n + k);
+        rod.reprocess(nmodel, SarimaMapping.of(nmodel.arima().orders()), previous, arima, n);
+        assertFalse(rod.isFullSearch());
+        assertArrayEquals(o, SimulatedSeries.sorted(rod.getOutliers()));
+    }
+
+    /**
+     * Outliers added during the forward search (position, type)
+     */
+    private static List<int[]> added(OutliersDetector od) {
+        List<int[]> added = new ArrayList<>();
+        od.register((hook, cancel) -> {
+            OutliersDetector.OutlierInfo info = hook.getInformation();
+            if (info.isAdded()) {
+                added.add(new int[]{info.getPos(), info.getType()});
+            }
+        });
+        return added;
+    }
+}
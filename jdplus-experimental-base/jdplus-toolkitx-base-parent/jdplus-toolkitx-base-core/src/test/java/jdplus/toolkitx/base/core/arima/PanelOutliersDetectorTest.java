@@ -0,0 +1,73 @@
+/*
+ * Copyright 2026 JDemetra+.
+ * Licensed under the EUPL, Version 1.2 or – as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ *      https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package jdplus.toolkitx.base.core.arima;
+
+import java.util.List;
+import jdplus.toolkit.base.api.data.DoubleSeq;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ *
+ * @author Jean Palate
+ */
+public class PanelOutliersDetectorTest {
+
+    public PanelOutliersDetectorTest() {
+    }
+
+    @Test
+    public void testProcess() {
+        int n = 180;
+        double[] y = SimulatedSeries.series(n, 1, SimulatedSeries.OUTLIERS);
+        double[] y2 = y.clone();
+        for (int i = 0; i < n; ++i) {
+            y2[i] *= 10;
+        }
+        PanelOutliersDetector pod = PanelOutliersDetector.builder()
+                .arima(SimulatedSeries.airline())
+                .outlierFactories(SimulatedSeries.factories())
+                .criticalValue(3.5)
+                .build();
+        assertTrue(pod.process(List.of(DoubleSeq.of(y), DoubleSeq.of(y2)), null));
+        PanelOutliersDetector.SeriesOutliers[] rslts = pod.getResults();
+        assertNotNull(rslts[0]);
+        assertNotNull(rslts[1]);
+        // the injected outliers are found, independently of the scale
+        int[][] o = SimulatedSeries.sorted(rslts[0].getOutliers());
+        for (int[] io : SimulatedSeries.OUTLIERS) {
+            boolean found = false;
+            for (int[] cur : o) {
+                if (cur[0] == io[0]) {
+                    found = true;
+                }
+            }
+            assertTrue(found);
+        }
+        assertEquals(o.length, rslts[1].getOutliers().length);
+    }
+
+    @Test
+    public void testCriticalValue() {
+        assertThrows(IllegalStateException.class, () -> PanelOutliersDetector.builder()
+                .arima(SimulatedSeries.airline())
+                .outlierFactories(SimulatedSeries.factories())
+                .build());
+    }
+}
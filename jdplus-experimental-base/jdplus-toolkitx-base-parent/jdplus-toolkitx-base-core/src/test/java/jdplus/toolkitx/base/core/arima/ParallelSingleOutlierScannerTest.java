@@ -0,0 +1,71 @@
+/*
+ * Copyright 2026 JDemetra+.
+ * Licensed under the EUPL, Version 1.2 or – as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ *      https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package jdplus.toolkitx.base.core.arima;
+
+import jdplus.toolkit.base.core.regarima.RegArimaModel;
+import jdplus.toolkit.base.core.regarima.outlier.SingleOutlierDetector;
+import jdplus.toolkit.base.core.sarima.SarimaModel;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ *
+ * @author Jean Palate
+ */
+public class ParallelSingleOutlierScannerTest {
+
+    public ParallelSingleOutlierScannerTest() {
+    }
+
+    @Test
+    public void testFast() {
+        double[] y = SimulatedSeries.series(180, 3, SimulatedSeries.OUTLIERS);
+        // moderate outliers
+        y[60] += 4;
+        y[110] -= 4;
+        y[150] += 3.5;
+        RegArimaModel<SarimaModel> model = SimulatedSeries.model(y);
+        int n = y.length;
+
+        SingleOutlierDetector<SarimaModel> fast = SimulatedSeries.fastDetector();
+        fast.prepare(n);
+        fast.setBounds(0, n);
+        fast.exclude(40, 0);
+        assertTrue(fast.process(model));
+
+        ParallelSingleOutlierScanner<SarimaModel> parallel = new ParallelSingleOutlierScanner<>(SimulatedSeries.fastDetector(), SimulatedSeries::fastDetector, 5, null);
+        parallel.prepare(n);
+        parallel.exclude(40, 0);
+        assertTrue(parallel.process(model));
+
+        // the same detector, on smaller spans
+        assertEquals(fast.getMaxTStat(), parallel.getMaxTStat());
+        assertEquals(fast.getMaxOutlierPosition(), parallel.getMaxOutlierPosition());
+        assertEquals(fast.getMaxOutlierType(), parallel.getMaxOutlierType());
+        assertArrayEquals(fast.getT().toArray(), parallel.getT().toArray());
+
+        // restricted bounds
+        fast.setBounds(100, n);
+        assertTrue(fast.process(model));
+        parallel.setBounds(100, n);
+        assertTrue(parallel.process(model));
+        assertEquals(fast.getMaxOutlierPosition(), parallel.getMaxOutlierPosition());
+        int nf = fast.getOutlierFactoriesCount();
+        assertArrayEquals(fast.getT().extract(100, n - 100, 0, nf).toArray(), parallel.getT().extract(100, n - 100, 0, nf).toArray());
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2026 JDemetra+.
+ * Licensed under the EUPL, Version 1.2 or – as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ *      https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package jdplus.toolkitx.base.core.arima;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import jdplus.toolkit.base.api.arima.SarimaOrders;
+import jdplus.toolkit.base.api.data.DoubleSeq;
+import jdplus.toolkit.base.core.arima.estimation.ArmaFilter;
+import jdplus.toolkit.base.core.data.DataBlock;
+import jdplus.toolkit.base.core.modelling.regression.AdditiveOutlierFactory;
+import jdplus.toolkit.base.core.modelling.regression.IOutlierFactory;
+import jdplus.toolkit.base.core.modelling.regression.LevelShiftFactory;
+import jdplus.toolkit.base.core.modelling.regression.TransitoryChangeFactory;
+import jdplus.toolkit.base.core.regarima.RegArimaModel;
+import jdplus.toolkit.base.core.regarima.RegArimaUtility;
+import jdplus.toolkit.base.core.regarima.outlier.ExactSingleOutlierDetector;
+import jdplus.toolkit.base.core.regarima.outlier.FastOutlierDetector;
+import jdplus.toolkit.base.core.regarima.outlier.SingleOutlierDetector;
+import jdplus.toolkit.base.core.sarima.SarimaModel;
+import jdplus.toolkit.base.core.sarima.estimation.SarimaMapping;
+import jdplus.toolkit.base.core.stats.RobustStandardDeviationComputer;
+
+/**
+ * Simulated airline series with injected outliers, used in the tests of the
+ * outliers detection
+ *
+ * @author Jean Palate
+ */
+final class SimulatedSeries {
+
+    static final int PERIOD = 12;
+    static final double THETA = -.6, BTHETA = -.6;
+    /**
+     * Size of the outliers, in units of the innovation standard deviation
+     */
+    static final double SIZE = 8;
+    static final double TC_RATE = .7;
+    /**
+     * Injected outliers (position, type), with the types of factories()
+     */
+    static final int[][] OUTLIERS = {{40, 0}, {85, 1}, {130, 2}};
+
+    private SimulatedSeries() {
+    }
+
+    static SarimaModel airline() {
+        return SarimaModel.builder(SarimaOrders.airline(PERIOD))
+                .theta(THETA)
+                .btheta(BTHETA)
+                .build();
+    }
+
+    /**
+     * (1-B)(1-B^12)y(t) = (1+THETA*B)(1+BTHETA*B^12)e(t), e ~ N(0,1), with
+     * the given outliers
+     *
+     * @param n Length of the series
+     * @param seed Seed of the random generator
+     * @param outliers Outliers (position, type), with the types of
+     * factories()
+     * @return
+     */
+    static double[] series(int n, long seed, int[][] outliers) {
+        Random rnd = new Random(seed);
+        int burn = 2 * PERIOD + 1;
+        int m = n + burn;
+        double[] e = new double[m];
+        for (int i = 0; i < m; ++i) {
+            e[i] = rnd.nextGaussian();
+        }
+        double[] z = new double[m];
+        for (int i = 0; i < m; ++i) {
+            double cur = e[i];
+            if (i >= 1) {
+                cur += THETA * e[i - 1] + z[i - 1];
+            }
+            if (i >= PERIOD) {
+                cur += BTHETA * e[i - PERIOD] + z[i - PERIOD];
+            }
+            if (i >= PERIOD + 1) {
+                cur += THETA * BTHETA * e[i - PERIOD - 1] - z[i - PERIOD - 1];
+            }
+            z[i] = cur;
+        }
+        double[] y = Arrays.copyOfRange(z, burn, m);
+        IOutlierFactory[] factories = factories();
+        DataBlock x = DataBlock.make(n);
+        for (int[] o : outliers) {
+            x.set(0);
+            factories[o[1]].fill(o[0], x);
+            for (int t = 0; t < n; ++t) {
+                y[t] += SIZE * x.get(t);
+            }
+        }
+        return y;
+    }
+
+    static IOutlierFactory[] factories() {
+        return new IOutlierFactory[]{AdditiveOutlierFactory.FACTORY, LevelShiftFactory.FACTORY_ZEROENDED, new TransitoryChangeFactory(TC_RATE)};
+    }
+
+    static SingleOutlierDetector<SarimaModel> detector() {
+        SingleOutlierDetector<SarimaModel> sod = new ExactSingleOutlierDetector<>(RobustStandardDeviationComputer.mad(), ArmaFilter.ansley(), null);
+        sod.setOutlierFactories(factories());
+        return sod;
+    }
+
+    /**
+     * Fast (approximate) detector, with a robust standard deviation
+     *
+     * @return
+     */
+    static SingleOutlierDetector<SarimaModel> fastDetector() {
+        SingleOutlierDetector<SarimaModel> sod = new FastOutlierDetector<>(RobustStandardDeviationComputer.mad());
+        sod.setOutlierFactories(factories());
+        return sod;
+    }
+
+    static RegArimaModel<SarimaModel> model(double[] y) {
+        return RegArimaModel.<SarimaModel>builder()
+                .y(DoubleSeq.of(y))
+                .arima(airline())
+                .build();
+    }
+
+    /**
+     * Regressor of an outlier
+     *
+     * @param n
+     * @param pos
+     * @param type
+     * @return
+     */
+    static DoubleSeq regressor(int n, int pos, int type) {
+        DataBlock x = DataBlock.make(n);
+        factories()[type].fill(pos, x);
+        return x;
+    }
+
+    /**
+     * Default detector: exact (Ansley) scoring, with a robust standard
+     * deviation
+     *
+     * @param cv
+     * @return
+     */
+    static OutliersDetector.Builder builder(double cv) {
+        return OutliersDetector.builder()
+                .singleOutlierDetectorFactory(SimulatedSeries::detector)
+                .criticalValue(cv)
+                .processor(RegArimaUtility.processor(true, 1e-7));
+    }
+
+    /**
+     * Processes the model on its whole span
+     *
+     * @param od
+     * @param model
+     * @return The outliers, sorted by position and type
+     */
+    static int[][] process(OutliersDetector od, RegArimaModel<SarimaModel> model) {
+        int n = model.getObservationsCount();
+        od.prepare(n);
+        od.setBounds(0, n);
+        od.process(model, SarimaMapping.of(model.arima().orders()));
+        return sorted(od.getOutliers());
+    }
+
+    static int[][] sorted(int[][] outliers) {
+        int[][] s = outliers.clone();
+        Arrays.sort(s, Comparator.<int[]>comparingInt(o -> o[0]).thenComparingInt(o -> o[1]));
+        return s;
+    }
+}
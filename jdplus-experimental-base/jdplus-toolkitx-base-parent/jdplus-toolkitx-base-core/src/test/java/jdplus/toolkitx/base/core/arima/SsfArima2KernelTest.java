@@ -0,0 +1,145 @@
+/*
+ * Copyright 2026 JDemetra+.
+ * Licensed under the EUPL, Version 1.2 or – as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ *      https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package jdplus.toolkitx.base.core.arima;
+
+import jdplus.toolkit.base.api.arima.SarimaOrders;
+import jdplus.toolkit.base.api.data.DoubleSeq;
+import jdplus.toolkit.base.api.data.DoublesMath;
+import jdplus.toolkit.base.core.arima.estimation.ArmaFilter;
+import jdplus.toolkit.base.core.arima.AutoCovarianceFunction;
+import jdplus.toolkit.base.core.data.DataBlock;
+import jdplus.toolkit.base.core.math.linearsystem.LinearSystemSolver;
+import jdplus.toolkit.base.core.math.matrices.FastMatrix;
+import jdplus.toolkit.base.core.sarima.SarimaModel;
+import tck.demetra.data.Data;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ *
+ * @author Jean Palate
+ */
+public class SsfArima2KernelTest {
+
+    public SsfArima2KernelTest() {
+    }
+
+    @Test
+    public void testFilter() {
+        SarimaOrders spec = new SarimaOrders(12);
+        spec.setP(2);
+        spec.setQ(1);
+        spec.setBp(1);
+        spec.setBq(1);
+        SarimaModel arma = SarimaModel.builder(spec).phi(-.3, .2).bphi(-.4).theta(1, -.6).btheta(1, -.8).build();
+        SarimaOrders maspec = new SarimaOrders(12);
+        maspec.setQ(1);
+        maspec.setBq(1);
+        SarimaModel ma = SarimaModel.builder(maspec).theta(1, -.6).btheta(1, -.8).build();
+        DoubleSeq y = DoubleSeq.of(Data.PROD).delta(1).delta(12);
+        int n = y.length();
+
+        // the same kernel is re-used with different dimensions
+        SsfArima2Kernel kernel = new SsfArima2Kernel();
+        for (SarimaModel m : new SarimaModel[]{arma, ma, arma}) {
+            ArmaFilter ansley = ArmaFilter.ansley();
+            int na = ansley.prepare(m, n);
+            DataBlock ea = DataBlock.make(na);
+            ansley.apply(y, ea);
+
+            kernel.prepare(m, n);
+            DataBlock ek = DataBlock.make(n);
+            kernel.apply(y, ek);
+            assertEquals(ansley.getLogDeterminant(), kernel.getLogDeterminant(), 1e-6);
+            assertEquals(ea.ssq(), ek.ssq(), 1e-6 * ea.ssq());
+        }
+    }
+
+    @Test
+    public void testSmoother() {
+        SarimaOrders spec = new SarimaOrders(12);
+        spec.setQ(1);
+        spec.setBq(1);
+        SarimaModel ma = SarimaModel.builder(spec).theta(1, -.6).btheta(1, -.8).build();
+        DoubleSeq y = DoubleSeq.of(Data.PROD).delta(1).delta(12);
+        int n = y.length();
+
+        SsfArima2Kernel kernel = new SsfArima2Kernel(0);
+        kernel.prepare(ma, n);
+        DataBlock e = DataBlock.make(n);
+        kernel.smooth(y, e);
+        // theta(B)e(t|n) = y(t), for t >= q
+        DoubleSeq theta = ma.getMa().coefficients();
+        int q = theta.length() - 1;
+        DataBlock ye = DataBlock.make(n - q);
+        for (int t = q; t < n; ++t) {
+            double s = 0;
+            for (int j = 0; j <= q; ++j) {
+                s += theta.get(j) * e.get(t - j);
+            }
+            ye.set(t - q, s);
+        }
+        assertTrue(DoublesMath.subtract(ye, y.drop(q, 0)).norm2() < 1e-6 * y.norm2());
+    }
+
+    @Test
+    public void testArmaSmoother() {
+        SarimaOrders spec = new SarimaOrders(12);
+        spec.setP(2);
+        spec.setQ(1);
+        spec.setBp(1);
+        SarimaModel arma = SarimaModel.builder(spec).phi(-.3, .2).bphi(-.4).theta(1, -.6).build();
+        DoubleSeq y = DoubleSeq.of(Data.PROD).delta(1).delta(12).range(0, 80);
+        int n = y.length();
+
+        SsfArima2Kernel kernel = new SsfArima2Kernel(0);
+        kernel.prepare(arma, n);
+        DataBlock e = DataBlock.make(n);
+        kernel.smooth(y, e);
+
+        // brute force: e(t|n) = var * sum(s>=t) psi(s-t) * (G^-1 y)(s)
+        double var = arma.getInnovationVariance();
+        double[] acf = new AutoCovarianceFunction(arma.getMa().asPolynomial(), arma.getAr().asPolynomial(), var).values(n);
+        FastMatrix G = FastMatrix.square(n);
+        for (int i = 0; i < n; ++i) {
+            for (int j = 0; j < n; ++j) {
+                G.set(i, j, acf[Math.abs(i - j)]);
+            }
+        }
+        DataBlock w = DataBlock.of(y.toArray());
+        LinearSystemSolver.fastSolver().solve(G, w);
+        // psi weights of theta(B)/phi(B)
+        DoubleSeq theta = arma.getMa().coefficients(), phi = arma.getAr().coefficients();
+        double[] psi = new double[n];
+        for (int j = 0; j < n; ++j) {
+            double s = j < theta.length() ? theta.get(j) : 0;
+            for (int i = 1; i < phi.length() && i <= j; ++i) {
+                s -= phi.get(i) * psi[j - i];
+            }
+            psi[j] = s;
+        }
+        DataBlock ee = DataBlock.make(n);
+        for (int t = 0; t < n; ++t) {
+            double s = 0;
+            for (int u = t; u < n; ++u) {
+                s += psi[u - t] * w.get(u);
+            }
+            ee.set(t, var * s);
+        }
+        assertTrue(DoublesMath.subtract(e, ee).norm2() < 1e-7 * ee.norm2());
+    }
+}
@@ -20,7 +20,9 @@ import jdplus.toolkit.base.api.arima.SarimaOrders;
 import jdplus.toolkit.base.api.data.DoubleSeq;
 import jdplus.toolkit.base.api.data.DoublesMath;
 import jdplus.toolkit.base.core.data.DataBlock;
+import jdplus.toolkit.base.core.math.matrices.FastMatrix;
 import jdplus.toolkit.base.core.sarima.SarimaModel;
+import jdplus.toolkit.base.core.ssf.ISsfDynamics;
 import jdplus.toolkit.base.core.ssf.arima.SsfArima;
 import jdplus.toolkit.base.core.ssf.dk.DefaultDiffuseFilteringResults;
 import jdplus.toolkit.base.core.ssf.dk.DkToolkit;
@@ -29,6 +31,7 @@ import jdplus.toolkit.base.core.ssf.univariate.Ssf;
 import jdplus.toolkit.base.core.ssf.univariate.SsfData;
 import tck.demetra.data.Data;
 import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
@@ -76,8 +79,86 @@ public class SsfArima2Test {
         assertTrue(DoublesMath.subtract(sz, sz2).norm2() < 1e-9);
     }
 
+    @Test
+    public void testSarima() {
+        SarimaOrders spec = SarimaOrders.airline(12);
+        spec.setP(2);
+        spec.setBp(1);
+        SarimaModel arima = SarimaModel.builder(spec).phi(-.3, .2).bphi(-.4).theta(1, -.6).btheta(1, -.8).build();
+        double[] data = Data.PROD.clone();
+        Random rnd = new Random(0);
+        for (int i = 0; i < 50; ++i) {
+            data[rnd.nextInt(data.length)] = Double.NaN;
+        }
+
+        DoubleSeq z = DoubleSeq.of(Data.PROD);
+        Ssf ssf = SsfArima.ssf(arima);
+        DefaultDiffuseFilteringResults fr = DkToolkit.filter(ssf, new SsfData(data), true);
+        FastDkSmoother smoother = new FastDkSmoother(ssf, fr);
+        smoother.smooth(z);
+        DataBlock sz = smoother.smoothedStates().item(0);
+
+        Ssf ssf2 = SsfArima2.ssf(arima);
+        assertEquals(SsfArima2.dim(arima), ssf2.getStateDim());
+        DefaultDiffuseFilteringResults fr2 = DkToolkit.filter(ssf2, new SsfData(data), true);
+        FastDkSmoother smoother2 = new FastDkSmoother(ssf2, fr2);
+        smoother2.smooth(z);
+        DataBlock sz2 = smoother2.smoothedStates().item(0);
+        assertTrue(DoublesMath.subtract(sz, sz2).norm2() < 1e-9);
+    }
+
     @Test
     public void testSsf() {
     }
 
+    @Test
+    public void testDynamics() {
+        SarimaOrders maspec = new SarimaOrders(12);
+        maspec.setQ(1);
+        maspec.setBq(1);
+        SarimaOrders armaspec = new SarimaOrders(12);
+        armaspec.setP(2);
+        armaspec.setQ(1);
+        SarimaOrders spec = SarimaOrders.airline(12);
+        spec.setP(2);
+        SarimaModel[] models = {
+            SarimaModel.builder(maspec).theta(1, -.6).btheta(1, -.8).build(),
+            SarimaModel.builder(armaspec).phi(-.3, .2).theta(1, -.6).build(),
+            SarimaModel.builder(spec).phi(-.3, .2).theta(1, -.6).btheta(1, -.8).build()
+        };
+        Random rnd = new Random(0);
+        for (SarimaModel arima : models) {
+            // the generic SsfArima is used as a reference of the checks
+            checkDynamics(SsfArima.ssf(arima), rnd);
+            checkDynamics(SsfArima2.ssf(arima), rnd);
+        }
+    }
+
+    /**
+     * XT and XS are compared with x*T and x*S, computed from the matrices of
+     * the same dynamics
+     */
+    private static void checkDynamics(Ssf ssf, Random rnd) {
+        ISsfDynamics dynamics = ssf.dynamics();
+        int m = ssf.getStateDim(), nu = dynamics.getInnovationsDim();
+        FastMatrix T = FastMatrix.square(m);
+        dynamics.T(0, T);
+        FastMatrix S = FastMatrix.make(m, nu);
+        dynamics.S(0, S);
+        for (int k = 0; k < 5; ++k) {
+            DataBlock x = DataBlock.make(m);
+            x.set(rnd::nextGaussian);
+            DataBlock xt = DataBlock.of(x.toArray());
+            dynamics.XT(0, xt);
+            DataBlock xs = DataBlock.make(nu);
+            dynamics.XS(0, x, xs);
+            for (int j = 0; j < m; ++j) {
+                assertEquals(T.column(j).dot(x), xt.get(j), 1e-12);
+            }
+            for (int j = 0; j < nu; ++j) {
+                assertEquals(S.column(j).dot(x), xs.get(j), 1e-12);
+            }
+        }
+    }
+
 }
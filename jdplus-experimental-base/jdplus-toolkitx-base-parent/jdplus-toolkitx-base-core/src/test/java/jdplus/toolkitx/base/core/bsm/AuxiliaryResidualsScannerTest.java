@@ -0,0 +1,112 @@
+/*
+ * Copyright 2026 JDemetra+.
+ * Licensed under the EUPL, Version 1.2 or – as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ *      https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package jdplus.toolkitx.base.core.bsm;
+
+import jdplus.sts.base.api.BsmSpec;
+import jdplus.sts.base.api.Component;
+import jdplus.sts.base.api.SeasonalModel;
+import jdplus.sts.base.core.BsmData;
+import jdplus.sts.base.core.BsmMapping;
+import jdplus.sts.base.core.SsfBsm2;
+import jdplus.sts.base.core.SsfOutlierDetector;
+import jdplus.toolkit.base.api.data.DoubleSeq;
+import jdplus.toolkit.base.core.math.matrices.FastMatrix;
+import jdplus.toolkit.base.core.stats.RobustStandardDeviationComputer;
+import org.junit.jupiter.api.Test;
+import tck.demetra.data.Data;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ *
+ * @author Jean Palate
+ */
+public class AuxiliaryResidualsScannerTest {
+
+    public AuxiliaryResidualsScannerTest() {
+    }
+
+    @Test
+    public void testRegression() {
+        DoubleSeq y = DoubleSeq.of(Data.RETAIL_BOOKSTORES);
+        int n = y.length();
+        BsmData model = model(true);
+
+        BsmOutlierScanner regression = BsmOutlierScanner.of(new SsfOutlierDetector(RobustStandardDeviationComputer.mad()));
+        regression.prepare(n);
+        assertTrue(regression.process(y, model, null, null));
+
+        AuxiliaryResidualsScanner aux = new AuxiliaryResidualsScanner(RobustStandardDeviationComputer.mad(), null);
+        aux.prepare(n);
+        assertTrue(aux.process(y, model, null, null));
+        assertFalse(aux.isFallbackUsed());
+
+        // same tau outside the diffuse part (and the edges, where the
+        // patterns are truncated)
+        int d = BsmDisturbanceSmoother.of(SsfBsm2.of(model), y).getEndDiffusePosition();
+        FastMatrix R = regression.getTau(), A = aux.getTau();
+        for (int j = 0; j < 3; ++j) {
+            double s = 0;
+            for (int t = d; t < n - 12; ++t) {
+                double r = R.get(t, j);
+                assertEquals(r, A.get(t, j), 1e-5 * Math.max(1, r));
+                s += A.get(t, j);
+            }
+            // the type is scored
+            assertTrue(s > 0);
+        }
+        assertEquals(regression.getMaxOutlierPosition(), aux.getMaxOutlierPosition());
+        assertEquals(regression.getMaxOutlierType(), aux.getMaxOutlierType());
+    }
+
+    @Test
+    public void testRequestedTypes() {
+        DoubleSeq y = DoubleSeq.of(Data.RETAIL_BOOKSTORES);
+        int n = y.length();
+        // no level: a LS can't be reproduced by a state shock
+        BsmData model = model(false);
+
+        AuxiliaryResidualsScanner aux = new AuxiliaryResidualsScanner(RobustStandardDeviationComputer.mad(), null);
+        aux.prepare(n);
+        assertFalse(aux.process(y, model, null, null));
+
+        BsmOutlierScanner regression = BsmOutlierScanner.of(new SsfOutlierDetector(RobustStandardDeviationComputer.mad()));
+        aux = new AuxiliaryResidualsScanner(RobustStandardDeviationComputer.mad(), regression);
+        aux.prepare(n);
+        assertTrue(aux.process(y, model, null, null));
+        assertTrue(aux.isFallbackUsed());
+        assertTrue(aux.getTau().column(1).sum() > 0);
+
+        // the LS are not requested: no fallback
+        aux.prepare(n);
+        aux.excludeType(1);
+        assertTrue(aux.process(y, model, null, null));
+        assertFalse(aux.isFallbackUsed());
+        assertEquals(0, aux.getTau().column(1).sum());
+        assertTrue(aux.getTau().column(0).sum() > 0);
+    }
+
+    private static BsmData model(boolean level) {
+        BsmSpec spec = BsmSpec.builder()
+                .noise(true)
+                .level(level, false)
+                .seasonal(SeasonalModel.HarrisonStevens)
+                .build();
+        BsmMapping mapping = new BsmMapping(spec, 12, Component.Noise);
+        return mapping.map(mapping.getDefaultParameters());
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2026 JDemetra+.
+ * Licensed under the EUPL, Version 1.2 or – as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ *      https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package jdplus.toolkitx.base.core.bsm;
+
+import jdplus.sts.base.api.BsmSpec;
+import jdplus.sts.base.api.Component;
+import jdplus.sts.base.api.SeasonalModel;
+import jdplus.sts.base.core.BsmData;
+import jdplus.sts.base.core.BsmMapping;
+import jdplus.sts.base.core.SsfBsm2;
+import jdplus.toolkit.base.api.data.DoubleSeq;
+import jdplus.toolkit.base.core.ssf.dk.SsfFunction;
+import jdplus.toolkit.base.core.ssf.univariate.SsfData;
+import org.junit.jupiter.api.Test;
+import tck.demetra.data.Data;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ *
+ * @author Jean Palate
+ */
+public class BsmLikelihoodScoreTest {
+
+    public BsmLikelihoodScoreTest() {
+    }
+
+    @Test
+    public void testGradient() {
+        BsmMapping mapping = new BsmMapping(spec(false), 12, Component.Noise);
+        BsmLikelihoodScore score = new BsmLikelihoodScore(mapping, DoubleSeq.of(Data.RETAIL_BOOKSTORES));
+        DoubleSeq p = mapping.getDefaultParameters();
+        int np = p.length();
+        double[] g = score.gradient(p);
+        assertNotNull(g);
+        // one pass of the smoother and one model by parameter
+        assertEquals(1 + np, score.getEvaluationsCount());
+        assertEquals(0, score.getNumericEvaluationsCount());
+        // central differences of the same concentrated likelihood
+        double gn2 = 0, del2 = 0;
+        for (int k = 0; k < np; ++k) {
+            double h = 1e-5 * Math.max(1, Math.abs(p.get(k)));
+            double[] pp = p.toArray(), pm = p.toArray();
+            pp[k] += h;
+            pm[k] -= h;
+            double gk = (score.logLikelihood(DoubleSeq.of(pp)) - score.logLikelihood(DoubleSeq.of(pm))) / (2 * h);
+            gn2 += gk * gk;
+            del2 += (gk - g[k]) * (gk - g[k]);
+        }
+        assertTrue(Math.sqrt(del2) <= 1e-3 * Math.max(1, Math.sqrt(gn2)));
+    }
+
+    @Test
+    public void testDiffuseGradient() {
+        BsmMapping mapping = new BsmMapping(spec(false), 12, Component.Noise);
+        DoubleSeq y = DoubleSeq.of(Data.RETAIL_BOOKSTORES);
+        BsmLikelihoodScore score = new BsmLikelihoodScore(mapping, y);
+        // the diffuse likelihood, as in the score estimation of the detector
+        SsfFunction<BsmData, SsfBsm2> fn = SsfFunction.builder(new SsfData(y), mapping, SsfBsm2::of)
+                .useFastAlgorithm(true)
+                .useLog(true)
+                .useScalingFactor(true)
+                .build();
+        DoubleSeq p = mapping.getDefaultParameters();
+        int np = p.length();
+        double[] g = score.gradient(p);
+        assertNotNull(g);
+        double gn2 = 0, del2 = 0, dot = 0;
+        for (int k = 0; k < np; ++k) {
+            double h = 1e-5 * Math.max(1, Math.abs(p.get(k)));
+            double[] pp = p.toArray(), pm = p.toArray();
+            pp[k] += h;
+            pm[k] -= h;
+            double gk = (fn.evaluate(DoubleSeq.of(pp)).getLikelihood().logLikelihood()
+                    - fn.evaluate(DoubleSeq.of(pm)).getLikelihood().logLikelihood()) / (2 * h);
+            gn2 += gk * gk;
+            del2 += (gk - g[k]) * (gk - g[k]);
+            dot += gk * g[k];
+        }
+        // the diffuse part is neglected: the gradients are close, not equal.
+        // The analytic gradient remains an ascent direction
+        assertTrue(dot > 0);
+        assertTrue(Math.sqrt(del2) <= .2 * Math.sqrt(gn2));
+    }
+
+    @Test
+    public void testCycleEvaluations() {
+        BsmMapping mapping = new BsmMapping(spec(true), 12, Component.Noise);
+        BsmLikelihoodScore score = new BsmLikelihoodScore(mapping, DoubleSeq.of(Data.RETAIL_BOOKSTORES));
+        DoubleSeq p = mapping.getDefaultParameters();
+        int np = p.length();
+        assertNotNull(score.gradient(p));
+        // the cycle factor and the cycle length modify the transition matrix:
+        // two passes of the filter for each of them
+        assertEquals(4, score.getNumericEvaluationsCount());
+        assertEquals(1 + np + 4, score.getEvaluationsCount());
+    }
+
+    private static BsmSpec spec(boolean cycle) {
+        return BsmSpec.builder()
+                .noise(true)
+                .level(true, true)
+                .seasonal(SeasonalModel.HarrisonStevens)
+                .cycle(cycle)
+                .build();
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2026 JDemetra+.
+ * Licensed under the EUPL, Version 1.2 or – as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ *      https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package jdplus.toolkitx.base.core.bsm;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import jdplus.sts.base.api.BsmSpec;
+import jdplus.sts.base.api.SeasonalModel;
+import jdplus.toolkit.base.api.data.DoubleSeq;
+import org.junit.jupiter.api.Test;
+import tck.demetra.data.Data;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ *
+ * @author Jean Palate
+ */
+public class BsmOutliersDetectorTest {
+
+    private static final double CV = 2.7 * 2.7;
+
+    public BsmOutliersDetectorTest() {
+    }
+
+    @Test
+    public void testTimeBudget() {
+        BsmOutliersDetector od = builder()
+                .timeBudget(Duration.ofNanos(1))
+                .build();
+        assertTrue(od.process(series(), null, 12));
+        assertTrue(od.isTruncated());
+        // the initial model, without outliers
+        assertNotNull(od.getModel());
+        assertTrue(od.outliers().isEmpty());
+        assertEquals(0, regressorsCount(od));
+
+        od = builder()
+                .timeBudget(Duration.ofMinutes(10))
+                .build();
+        assertTrue(od.process(series(), null, 12));
+        assertFalse(od.isTruncated());
+        assertFalse(od.outliers().isEmpty());
+    }
+
+    @Test
+    public void testCancel() {
+        BsmOutliersDetector od = builder().build();
+        List<int[]> added = new ArrayList<>();
+        od.register((hook, cancancel) -> {
+            BsmOutliersDetector.OutlierInfo info = hook.getInformation();
+            if (info.isAdded()) {
+                added.add(new int[]{info.getPos(), info.getType()});
+                // the hook is called once the outlier is in the model
+                assertEquals(added.size(), od.outliers().size());
+                assertEquals(info.getBsm(), od.getModel());
+                hook.setCancel(true);
+            }
+        });
+        assertTrue(od.process(series(), null, 12));
+        assertTrue(od.isTruncated());
+        // the outlier notified to the hook is kept, with its model
+        assertEquals(1, added.size());
+        assertEquals(1, od.outliers().size());
+        assertEquals(added.get(0)[0], od.outliers().get(0)[0]);
+        assertEquals(added.get(0)[1], od.outliers().get(0)[1]);
+        assertEquals(1, regressorsCount(od));
+        assertNotNull(od.getLikelihood());
+        assertEquals(1, od.getLikelihood().coefficients().length());
+    }
+
+    @Test
+    public void testReprocess() {
+        DoubleSeq y = series();
+        int n = y.length(), k = 12;
+        BsmOutliersDetector od = builder().build();
+        assertTrue(od.process(y.range(0, n - k), null, 12));
+        BsmOutliersDetector.Vintage previous = od.getVintage();
+        assertNotNull(previous);
+        assertFalse(previous.getOutliers().isEmpty());
+
+        // the same series, extended by k observations
+        BsmOutliersDetector full = builder().build();
+        assertTrue(full.process(y, null, 12));
+        BsmOutliersDetector rod = builder().build();
+        assertTrue(rod.reprocess(y, null, 12, previous, n - k));
+        assertFalse(rod.isFullSearch());
+        assertArrayEquals(sorted(full.outliers()), sorted(rod.outliers()));
+        // no model without outliers in the incremental path
+        assertNotNull(full.getInitialModel());
+        assertNull(rod.getInitialModel());
+        assertNull(rod.getInitialLikelihood());
+    }
+
+    static BsmOutliersDetector.Builder builder() {
+        BsmSpec spec = BsmSpec.builder()
+                .noise(true)
+                .level(true, true)
+                .seasonal(SeasonalModel.HarrisonStevens)
+                .cycle(false)
+                .build();
+        return BsmOutliersDetector.builder()
+                .bsm(spec)
+                .criticalValue(CV)
+                .forwardEstimation(BsmOutliersDetector.Estimation.Score)
+                .backardEstimation(BsmOutliersDetector.Estimation.Point);
+    }
+
+    /**
+     * Retail series with two additive outliers
+     *
+     * @return
+     */
+    static DoubleSeq series() {
+        double[] y = Data.RETAIL_BOOKSTORES.clone();
+        y[50] *= .6;
+        y[100] *= 1.5;
+        return DoubleSeq.of(y);
+    }
+
+    private static int[][] sorted(List<int[]> outliers) {
+        int[][] s = outliers.toArray(int[][]::new);
+        Arrays.sort(s, Comparator.<int[]>comparingInt(o -> o[0]).thenComparingInt(o -> o[1]));
+        return s;
+    }
+
+    private static int regressorsCount(BsmOutliersDetector od) {
+        return od.getRegressors() == null ? 0 : od.getRegressors().getColumnsCount();
+    }
+}
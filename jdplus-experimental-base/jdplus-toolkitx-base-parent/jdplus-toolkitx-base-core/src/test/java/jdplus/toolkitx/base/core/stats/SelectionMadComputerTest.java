@@ -0,0 +1,135 @@
+/*
+ * Copyright 2026 JDemetra+.
+ * Licensed under the EUPL, Version 1.2 or – as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ *      https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package jdplus.toolkitx.base.core.stats;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Random;
+import jdplus.toolkit.base.api.data.DoubleSeq;
+import jdplus.toolkit.base.core.stats.RobustStandardDeviationComputer;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ *
+ * @author Jean Palate
+ */
+public class SelectionMadComputerTest {
+
+    public SelectionMadComputerTest() {
+    }
+
+    @Test
+    public void testSuccessiveRounds() {
+        Random rnd = new Random(0);
+        SelectionMadComputer mad = new SelectionMadComputer();
+        for (int n = 1; n < 200; n += 7) {
+            double[] e = new double[n];
+            for (int i = 0; i < n; ++i) {
+                e[i] = rnd.nextGaussian();
+            }
+            assertEquals(mad(e), mad.compute(DoubleSeq.of(e)), 1e-12);
+            // small changes: warm start
+            for (int i = 0; i < n; ++i) {
+                e[i] += 1e-3 * rnd.nextGaussian();
+            }
+            assertEquals(mad(e), mad.compute(DoubleSeq.of(e)), 1e-12);
+            // large changes: full selection
+            for (int i = 0; i < n; i += 2) {
+                e[i] += 10;
+            }
+            assertEquals(mad(e), mad.compute(DoubleSeq.of(e)), 1e-12);
+        }
+    }
+
+    @Test
+    public void testMad() {
+        Random rnd = new Random(1);
+        RobustStandardDeviationComputer ref = RobustStandardDeviationComputer.mad();
+        SelectionMadComputer mad = new SelectionMadComputer();
+        int[] lengths = {1, 2, 3, 4, 5, 6, 10, 11, 50, 51, 120, 121};
+        for (int n : lengths) {
+            // continuous values
+            double[] e = new double[n];
+            for (int i = 0; i < n; ++i) {
+                e[i] = rnd.nextGaussian();
+            }
+            assertEquals(ref.compute(DoubleSeq.of(e)), mad.compute(DoubleSeq.of(e)), 1e-12);
+            // many ties (half-integers)
+            for (int i = 0; i < n; ++i) {
+                e[i] = Math.round(2 * rnd.nextGaussian()) / 2.0;
+            }
+            assertEquals(ref.compute(DoubleSeq.of(e)), mad.compute(DoubleSeq.of(e)), 1e-12);
+            // ties around the median, with a warm start
+            for (int i = 0; i < n; i += 3) {
+                e[i] += .5;
+            }
+            assertEquals(ref.compute(DoubleSeq.of(e)), mad.compute(DoubleSeq.of(e)), 1e-12);
+            // constant values
+            Arrays.fill(e, 1);
+            assertEquals(ref.compute(DoubleSeq.of(e)), mad.compute(DoubleSeq.of(e)), 1e-12);
+            mad.reset();
+        }
+    }
+
+    @Test
+    public void testTies() {
+        Random rnd = new Random(2);
+        int n = 200000;
+        double[] e = new double[n];
+        for (int i = 0; i < n; ++i) {
+            e[i] = rnd.nextInt(3);
+        }
+        double[] s = e.clone();
+        Arrays.sort(s);
+        // a few values, or a single one: linear, not quadratic
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            for (int k : new int[]{0, n / 3, n / 2, n - 1}) {
+                double[] a = e.clone();
+                double ak = SelectionMadComputer.select(a, n, k);
+                assertEquals(s[k], ak);
+                for (int i = 0; i < k; ++i) {
+                    assertTrue(a[i] <= ak);
+                }
+                for (int i = k + 1; i < n; ++i) {
+                    assertTrue(a[i] >= ak);
+                }
+            }
+            double[] c = new double[n];
+            Arrays.fill(c, 1);
+            assertEquals(1, SelectionMadComputer.select(c, n, n / 2));
+            assertEquals(mad(e), new SelectionMadComputer().compute(DoubleSeq.of(e)), 1e-12);
+        });
+    }
+
+    private static double median(double[] x) {
+        double[] s = x.clone();
+        Arrays.sort(s);
+        int n = s.length;
+        return n % 2 == 1 ? s[n / 2] : (s[n / 2 - 1] + s[n / 2]) / 2;
+    }
+
+    private static double mad(double[] x) {
+        double m = median(x);
+        double[] a = new double[x.length];
+        for (int i = 0; i < x.length; ++i) {
+            a[i] = Math.abs(x[i] - m);
+        }
+        return median(a) / 0.6744897501960817;
+    }
+}
@@ -19,6 +19,11 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Function;
 import jdplus.sts.base.api.BsmSpec;
 import jdplus.sts.base.api.Component;
 import jdplus.sts.base.core.BsmData;
@@ -52,7 +57,10 @@ import jdplus.toolkit.base.core.sarima.SarimaModel;
 import jdplus.toolkit.base.core.sarima.estimation.SarimaMapping;
 import jdplus.toolkit.base.core.stats.likelihood.ConcentratedLikelihoodWithMissing;
 import jdplus.toolkit.base.core.stats.likelihood.DiffuseConcentratedLikelihood;
+import jdplus.toolkitx.base.core.arima.ChandrasekharFilter;
 import jdplus.toolkitx.base.core.arima.OutliersDetector;
+import jdplus.toolkitx.base.core.arima.SsfArima2Kernel;
+import jdplus.toolkitx.base.core.arima.PanelOutliersDetector;
 import jdplus.toolkitx.base.core.bsm.BsmOutliersDetector;
 
 /**
@@ -62,6 +70,10 @@ import jdplus.toolkitx.base.core.bsm.BsmOutliersDetector;
 @lombok.experimental.UtilityClass
 public class Outliers {
 
+    // hybrid filter: number of candidates and relative threshold of the exact verification
+    private final int HYBRID_TOPK = 10;
+    private final double HYBRID_THRESHOLD = .8;
+
     @lombok.Value
     public static class Results {
 
@@ -72,6 +84,49 @@ public class Outliers {
         Matrix variables;
     }
 
+    @lombok.Value
+    public static class BatchResults {
+
+        /**
+         * Series index (0-based), position (row of the input matrix), type,
+         * coefficient, t-stat
+         */
+        Matrix outliers;
+        /**
+         * Series index (0-based), followed by the parameters of the model
+         * after each new outlier
+         */
+        Matrix parameters;
+        /**
+         * 1 if the series has been successfully processed, 0 if it couldn't
+         * be processed (empty series, no solution), -1 if its processing
+         * failed (see errors)
+         */
+        int[] status;
+        /**
+         * Error messages of the series whose processing failed (status -1),
+         * null for the other series
+         */
+        String[] errors;
+    }
+
+    @lombok.Value
+    public static class PanelResults {
+
+        /**
+         * Series index (0-based), position, type, t-stat
+         */
+        Matrix outliers;
+        /**
+         * Position, type, number of series
+         */
+        Matrix commonOutliers;
+        /**
+         * 1 if the series has been successfully processed, 0 otherwise
+         */
+        int[] status;
+    }
+
     public Matrix regarimaOutlier(double[] y, IArimaModel arima, boolean mean, Matrix X, String[] outliers, String filter, boolean mad) {
         SingleOutlierDetector<IArimaModel> sod;
         switch (filter.toLowerCase(Locale.ROOT)) {
@@ -91,6 +146,12 @@ public class Outliers {
             case "kalman" -> {
                 sod = new ExactSingleOutlierDetector<>(mad ? RobustStandardDeviationComputer.mad() : null, ArmaFilter.kalman(true), null);
             }
+            case "chandrasekhar" -> {
+                sod = new ExactSingleOutlierDetector<>(mad ? RobustStandardDeviationComputer.mad() : null, new ChandrasekharFilter(), null);
+            }
+            case "kernel" -> {
+                sod = new ExactSingleOutlierDetector<>(mad ? RobustStandardDeviationComputer.mad() : null, new SsfArima2Kernel(), null);
+            }
             case "ljungbox" -> {
                 sod = new ExactSingleOutlierDetector<>(mad ? RobustStandardDeviationComputer.mad() : null, ArmaFilter.ljungBox(false), null);
             }
@@ -126,19 +187,26 @@ public class Outliers {
             cv = CriticalValueComputer.advancedComputer(0.5).applyAsDouble(y.length);
         }
         SingleOutlierDetector<SarimaModel> sod;
-        switch (filter.toLowerCase(Locale.ROOT)) {
-            case "fast" -> {
+        String cfilter = filter.toLowerCase(Locale.ROOT);
+        switch (cfilter) {
+            case "fast", "hybrid" -> {
                 sod = new FastOutlierDetector<>(mad ? RobustStandardDeviationComputer.mad() : null);
             }
             case "fastc" -> {
                 sod = new FastOutlierDetector2(mad ? RobustStandardDeviationComputer.mad() : null, ArmaFilter.kalman(true), null);
             }
-            case "ansley" -> {
+            case "ansley", "cached" -> {
                 sod = new ExactSingleOutlierDetector<>(mad ? RobustStandardDeviationComputer.mad() : null, ArmaFilter.ansley(), null);
             }
             case "kalman" -> {
                 sod = new ExactSingleOutlierDetector<>(mad ? RobustStandardDeviationComputer.mad() : null, ArmaFilter.kalman(true), null);
             }
+            case "chandrasekhar" -> {
+                sod = new ExactSingleOutlierDetector<>(mad ? RobustStandardDeviationComputer.mad() : null, new ChandrasekharFilter(), null);
+            }
+            case "kernel" -> {
+                sod = new ExactSingleOutlierDetector<>(mad ? RobustStandardDeviationComputer.mad() : null, new SsfArima2Kernel(), null);
+            }
             case "ljungbox" -> {
                 sod = new ExactSingleOutlierDetector<>(mad ? RobustStandardDeviationComputer.mad() : null, ArmaFilter.ljungBox(false), null);
             }
@@ -149,12 +217,24 @@ public class Outliers {
                 sod = new ExactSingleOutlierDetector<>(mad ? RobustStandardDeviationComputer.mad() : null, null, null);
             }
         }
-        sod.setOutlierFactories(factories(outliers, sarima.getPeriod()));
-        OutliersDetector od = OutliersDetector.builder()
+        IOutlierFactory[] ofactories = factories(outliers, sarima.getPeriod());
+        sod.setOutlierFactories(ofactories);
+        OutliersDetector.Builder builder = OutliersDetector.builder()
                 .singleOutlierDetector(sod)
                 .criticalValue(cv)
-                .processor(RegArimaUtility.processor(true, 1e-6))
-                .build();
+                .processor(RegArimaUtility.processor(true, 1e-6));
+        if (cfilter.equals("hybrid")) {
+            // fast screening, exact (Ansley) t-stats for the best candidates
+            builder.hybridScoring(() -> {
+                SingleOutlierDetector<SarimaModel> exact = new ExactSingleOutlierDetector<>(mad ? RobustStandardDeviationComputer.mad() : null, ArmaFilter.ansley(), null);
+                exact.setOutlierFactories(ofactories);
+                return exact;
+            }, HYBRID_TOPK, HYBRID_THRESHOLD);
+        }
+        if (cfilter.equals("cached")) {
+            builder.cachedExactScoring(mad);
+        }
+        OutliersDetector od = builder.build();
         od.prepare(y.length);
         od.setBounds(0, y.length);
 
@@ -322,14 +402,42 @@ public class Outliers {
 
     public Results bsmOutliers(double[] y, int period, BsmSpec spec, Matrix X, double cv,
             boolean ao, boolean ls, boolean so, boolean mad, String forward, String backward) {
+        return bsmOutliers(y, period, spec, X, cv, ao, ls, so, mad, forward, backward, false);
+    }
+
+    /**
+     * Same as the previous method, with the choice of the scoring of the
+     * candidates
+     *
+     * @param y
+     * @param period
+     * @param spec
+     * @param X
+     * @param cv
+     * @param ao
+     * @param ls
+     * @param so
+     * @param mad
+     * @param forward Full, Score, AnalyticScore (score with the analytic
+     * gradient) or Point
+     * @param backward
+     * @param aux Scoring by means of the auxiliary residuals
+     * @return
+     */
+    public Results bsmOutliers(double[] y, int period, BsmSpec spec, Matrix X, double cv,
+            boolean ao, boolean ls, boolean so, boolean mad, String forward, String backward, boolean aux) {
+        // AnalyticScore: score estimation with the analytic gradient
+        boolean analytic = forward.equalsIgnoreCase("AnalyticScore");
         BsmOutliersDetector od = BsmOutliersDetector.builder()
                 .bsm(spec)
                 .mad(mad)
+                .auxiliaryResiduals(aux)
                 .ao(ao)
                 .ls(ls)
                 .so(so)
                 .criticalValue(cv)
-                .forwardEstimation(BsmOutliersDetector.Estimation.valueOf(forward))
+                .analyticScore(analytic)
+                .forwardEstimation(analytic ? BsmOutliersDetector.Estimation.Score : BsmOutliersDetector.Estimation.valueOf(forward))
                 .backardEstimation(BsmOutliersDetector.Estimation.valueOf(backward))
                 .build();
 
@@ -367,6 +475,268 @@ public class Outliers {
         }
     }
 
+    /**
+     * Batch version of regarimaOutliers. The series are the columns of y
+     * (NaN-padded at the beginning and/or at the end). The per-series
+     * arguments (sarima, cv) are recycled when they contain less items than
+     * the number of series.
+     *
+     * @param y
+     * @param sarima
+     * @param mean
+     * @param cv
+     * @param outliers
+     * @param filter
+     * @param mad
+     * @param nthreads Number of threads (common pool if 0), limited to the
+     * number of available processors. The pool is created for the call and
+     * shut down at its end
+     * @return
+     */
+    public BatchResults batchRegarimaOutliers(Matrix y, SarimaModel[] sarima, boolean mean, double[] cv, String[] outliers, String filter, boolean mad, int nthreads) {
+        return withPool(nthreads, pool -> batchRegarimaOutliers(y, sarima, mean, cv, outliers, filter, mad, pool));
+    }
+
+    /**
+     * Same as the previous method, with a pool provided by the caller
+     *
+     * @param y
+     * @param sarima
+     * @param mean
+     * @param cv
+     * @param outliers
+     * @param filter
+     * @param mad
+     * @param pool
+     * @return
+     */
+    public BatchResults batchRegarimaOutliers(Matrix y, SarimaModel[] sarima, boolean mean, double[] cv, String[] outliers, String filter, boolean mad, ForkJoinPool pool) {
+        int ns = y.getColumnsCount();
+        List<Callable<Results>> tasks = new ArrayList<>(ns);
+        int[] starts = new int[ns];
+        for (int i = 0; i < ns; ++i) {
+            double[] yc = trim(y.column(i), starts, i);
+            SarimaModel cur = sarima[i % sarima.length];
+            double cvcur = cv == null || cv.length == 0 ? 0 : cv[i % cv.length];
+            tasks.add(() -> yc == null ? null : regarimaOutliers(yc, cur, mean, null, cvcur, outliers, filter, mad));
+        }
+        return batch(tasks, starts, pool);
+    }
+
+    /**
+     * Batch version of bsmOutliers. The series are the columns of y
+     * (NaN-padded at the beginning and/or at the end). The per-series
+     * arguments (period, spec, cv) are recycled when they contain less items
+     * than the number of series.
+     *
+     * @param y
+     * @param period
+     * @param spec
+     * @param cv
+     * @param ao
+     * @param ls
+     * @param so
+     * @param mad
+     * @param forward
+     * @param backward
+     * @param nthreads Number of threads (common pool if 0), limited to the
+     * number of available processors. The pool is created for the call and
+     * shut down at its end
+     * @return
+     */
+    public BatchResults batchBsmOutliers(Matrix y, int[] period, BsmSpec[] spec, double[] cv,
+            boolean ao, boolean ls, boolean so, boolean mad, String forward, String backward, int nthreads) {
+        return withPool(nthreads, pool -> batchBsmOutliers(y, period, spec, cv, ao, ls, so, mad, forward, backward, pool));
+    }
+
+    /**
+     * Same as the previous method, with a pool provided by the caller
+     *
+     * @param y
+     * @param period
+     * @param spec
+     * @param cv
+     * @param ao
+     * @param ls
+     * @param so
+     * @param mad
+     * @param forward
+     * @param backward
+     * @param pool
+     * @return
+     */
+    public BatchResults batchBsmOutliers(Matrix y, int[] period, BsmSpec[] spec, double[] cv,
+            boolean ao, boolean ls, boolean so, boolean mad, String forward, String backward, ForkJoinPool pool) {
+        int ns = y.getColumnsCount();
+        List<Callable<Results>> tasks = new ArrayList<>(ns);
+        int[] starts = new int[ns];
+        for (int i = 0; i < ns; ++i) {
+            double[] yc = trim(y.column(i), starts, i);
+            int pcur = period[i % period.length];
+            BsmSpec cur = spec[i % spec.length];
+            double cvcur = cv == null || cv.length == 0 ? 0 : cv[i % cv.length];
+            tasks.add(() -> yc == null ? null : bsmOutliers(yc, pcur, cur, null, cvcur, ao, ls, so, mad, forward, backward));
+        }
+        return batch(tasks, starts, pool);
+    }
+
+    /**
+     * Outliers detection in a panel of series (columns of y, same length, no
+     * missing values) that share the same Arima model. The parameters of the
+     * model are not re-estimated.
+     *
+     * @param y
+     * @param sarima
+     * @param mean
+     * @param X Common regression variables. May be null
+     * @param cv
+     * @param outliers
+     * @param mad
+     * @param common Minimal number of series of the common outliers (no
+     * common outliers if 0)
+     * @return
+     */
+    public PanelResults panelOutliers(Matrix y, SarimaModel sarima, boolean mean, Matrix X, double cv, String[] outliers, boolean mad, int common) {
+        int n = y.getRowsCount(), ns = y.getColumnsCount();
+        if (cv == 0) {
+            cv = CriticalValueComputer.advancedComputer(0.5).applyAsDouble(n);
+        }
+        IOutlierFactory[] ofactories = factories(outliers, sarima.getPeriod());
+        PanelOutliersDetector pod = PanelOutliersDetector.builder()
+                .arima(sarima)
+                .meanCorrection(mean)
+                .outlierFactories(ofactories)
+                .criticalValue(cv)
+                .mad(mad)
+                .commonOutliers(common)
+                .build();
+        List<DoubleSeq> series = new ArrayList<>(ns);
+        for (int i = 0; i < ns; ++i) {
+            series.add(y.column(i));
+        }
+        pod.process(series, X == null ? null : FastMatrix.of(X));
+        PanelOutliersDetector.SeriesOutliers[] all = pod.getResults();
+        int no = 0;
+        int[] status = new int[ns];
+        for (int i = 0; i < ns; ++i) {
+            if (all[i] != null) {
+                status[i] = 1;
+                no += all[i].getOutliers().length;
+            }
+        }
+        FastMatrix o = FastMatrix.make(no, 4);
+        for (int i = 0, io = 0; i < ns; ++i) {
+            if (all[i] == null) {
+                continue;
+            }
+            int[][] co = all[i].getOutliers();
+            double[] t = all[i].getTstats();
+            for (int j = 0; j < co.length; ++j, ++io) {
+                o.set(io, 0, i);
+                o.set(io, 1, co[j][0]);
+                o.set(io, 2, co[j][1]);
+                o.set(io, 3, t[j]);
+            }
+        }
+        List<PanelOutliersDetector.CommonOutlier> cos = pod.getCommonOutliers();
+        FastMatrix c = FastMatrix.make(cos.size(), 3);
+        for (int i = 0; i < cos.size(); ++i) {
+            PanelOutliersDetector.CommonOutlier co = cos.get(i);
+            c.set(i, 0, co.getPosition());
+            c.set(i, 1, co.getType());
+            c.set(i, 2, co.getSeries().length);
+        }
+        return new PanelResults(o, c, status);
+    }
+
+    private double[] trim(DoubleSeq s, int[] starts, int i) {
+        int n = s.length();
+        int beg = 0, end = n;
+        while (beg < end && Double.isNaN(s.get(beg))) {
+            ++beg;
+        }
+        while (end > beg && Double.isNaN(s.get(end - 1))) {
+            --end;
+        }
+        starts[i] = beg;
+        return beg == end ? null : s.range(beg, end).toArray();
+    }
+
+    private BatchResults withPool(int nthreads, Function<ForkJoinPool, BatchResults> fn) {
+        if (nthreads <= 0) {
+            return fn.apply(ForkJoinPool.commonPool());
+        }
+        ForkJoinPool pool = new ForkJoinPool(Math.min(nthreads, Runtime.getRuntime().availableProcessors()));
+        try {
+            return fn.apply(pool);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    BatchResults batch(List<Callable<Results>> tasks, int[] starts, ForkJoinPool pool) {
+        int ns = tasks.size();
+        List<ForkJoinTask<Results>> futures = new ArrayList<>(ns);
+        for (Callable<Results> task : tasks) {
+            futures.add(pool.submit(task));
+        }
+        Results[] all = new Results[ns];
+        int[] status = new int[ns];
+        String[] errors = new String[ns];
+        try {
+            for (int i = 0; i < ns; ++i) {
+                try {
+                    all[i] = futures.get(i).get();
+                } catch (ExecutionException err) {
+                    Throwable cause = err.getCause() == null ? err : err.getCause();
+                    status[i] = -1;
+                    errors[i] = cause.toString();
+                }
+            }
+        } catch (InterruptedException err) {
+            for (ForkJoinTask<Results> future : futures) {
+                future.cancel(true);
+            }
+            Thread.currentThread().interrupt();
+            return null;
+        }
+        // packing
+        int no = 0, np = 0, nc = 0;
+        for (int i = 0; i < ns; ++i) {
+            if (all[i] != null) {
+                status[i] = 1;
+                no += all[i].getOutliers().getRowsCount();
+                Matrix p = all[i].getParameters();
+                np += p.getRowsCount();
+                nc = Math.max(nc, p.getColumnsCount());
+            }
+        }
+        FastMatrix o = FastMatrix.make(no, 5);
+        FastMatrix p = FastMatrix.make(np, nc + 1);
+        int io = 0, ip = 0;
+        for (int i = 0; i < ns; ++i) {
+            if (all[i] == null) {
+                continue;
+            }
+            Matrix co = all[i].getOutliers();
+            for (int j = 0; j < co.getRowsCount(); ++j, ++io) {
+                o.set(io, 0, i);
+                o.set(io, 1, co.get(j, 0) + starts[i]);
+                for (int k = 1; k < 4; ++k) {
+                    o.set(io, k + 1, co.get(j, k));
+                }
+            }
+            Matrix cp = all[i].getParameters();
+            for (int j = 0; j < cp.getRowsCount(); ++j, ++ip) {
+                p.set(ip, 0, i);
+                for (int k = 0; k < cp.getColumnsCount(); ++k) {
+                    p.set(ip, k + 1, cp.get(j, k));
+                }
+            }
+        }
+        return new BatchResults(o, p, status, errors);
+    }
+
     private IOutlierFactory[] factories(String[] outliers, int period) {
         return (Arrays.stream(outliers)
                 .map(s -> outlierFactoryFor(s, period))
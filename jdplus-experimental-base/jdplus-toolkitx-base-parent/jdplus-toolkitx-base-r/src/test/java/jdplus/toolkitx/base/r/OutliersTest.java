@@ -15,12 +15,16 @@
  */
 package jdplus.toolkitx.base.r;
 
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
 import jdplus.sts.base.api.BsmSpec;
 import jdplus.sts.base.core.BsmData;
 import jdplus.sts.base.r.Bsm;
 import jdplus.toolkit.base.api.arima.SarimaOrders;
 import jdplus.toolkit.base.api.math.matrices.Matrix;
 import jdplus.toolkit.base.api.ssf.sts.SeasonalModel;
+import jdplus.toolkit.base.core.math.matrices.FastMatrix;
 import jdplus.toolkit.base.core.sarima.SarimaModel;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
@@ -59,6 +63,43 @@ public class OutliersTest {
         System.out.println(all.getOutliers());
     }
 
+    @Test
+    public void testRegSarimaHybrid() {
+        double[] y = Data.RETAIL_BOOKSTORES;
+        SarimaOrders spec = SarimaOrders.airline(12);
+        SarimaModel sarima = SarimaModel.builder(spec)
+                .theta(-.6)
+                .btheta(-.6)
+                .build();
+        Outliers.Results hybrid = Outliers.regarimaOutliers(y, sarima, false, null, 0, new String[]{"ao", "ls"}, "hybrid", true);
+        Outliers.Results exact = Outliers.regarimaOutliers(y, sarima, false, null, 0, new String[]{"ao", "ls"}, "ansley", true);
+        assertEquals(exact.getOutliers().getRowsCount(), hybrid.getOutliers().getRowsCount());
+    }
+
+    @Test
+    public void testRegSarimaCached() {
+        double[] y = Data.RETAIL_BOOKSTORES;
+        SarimaOrders spec = SarimaOrders.airline(12);
+        SarimaModel sarima = SarimaModel.builder(spec)
+                .theta(-.6)
+                .btheta(-.6)
+                .build();
+        Outliers.Results cached = Outliers.regarimaOutliers(y, sarima, false, null, 0, new String[]{"ao", "ls", "tc"}, "cached", true);
+        Outliers.Results exact = Outliers.regarimaOutliers(y, sarima, false, null, 0, new String[]{"ao", "ls", "tc"}, "ansley", true);
+        assertTrue(exact.getOutliers().getRowsCount() > 0);
+        assertArrayEquals(exact.getOutliers().column(0).toArray(), cached.getOutliers().column(0).toArray());
+        assertArrayEquals(exact.getOutliers().column(1).toArray(), cached.getOutliers().column(1).toArray());
+
+        // missing value: the model is scored by the exact (Ansley) detector
+        double[] ym = y.clone();
+        ym[20] = Double.NaN;
+        cached = Outliers.regarimaOutliers(ym, sarima, false, null, 0, new String[]{"ao", "ls", "tc"}, "cached", true);
+        exact = Outliers.regarimaOutliers(ym, sarima, false, null, 0, new String[]{"ao", "ls", "tc"}, "ansley", true);
+        assertTrue(exact.getOutliers().getRowsCount() > 0);
+        assertArrayEquals(exact.getOutliers().column(0).toArray(), cached.getOutliers().column(0).toArray());
+        assertArrayEquals(exact.getOutliers().column(1).toArray(), cached.getOutliers().column(1).toArray());
+    }
+
     @Test
     public void testTramo() {
         double[] y = Data.RETAIL_BOOKSTORES.clone();
@@ -111,6 +152,119 @@ public class OutliersTest {
         System.out.println(all.getOutliers());
     }
 
+    @Test
+    public void testBsmAuxiliary() {
+        double[] y = Data.RETAIL_BOOKSTORES.clone();
+        y[100] *= 1.5;
+        BsmData model = BsmData.builder(12)
+                .noiseVar(1)
+                .levelVar(1)
+                .slopeVar(1)
+                .seasonalVar(1)
+                .seasonalModel(SeasonalModel.HarrisonStevens)
+                .build();
+        BsmSpec spec = Bsm.specOf(model, false, true);
+        Outliers.Results all = Outliers.bsmOutliers(y, 12, spec, null, 2.7 * 2.7, true, true, false, true, "Score", "Point", true);
+        assertNotNull(all);
+        Matrix o = all.getOutliers();
+        boolean found = false;
+        for (int i = 0; i < o.getRowsCount(); ++i) {
+            if (o.get(i, 0) == 100 && o.get(i, 1) == 0) {
+                found = true;
+            }
+        }
+        assertTrue(found);
+    }
+
+    @Test
+    public void testBsmAnalyticScore() {
+        double[] y = Data.RETAIL_BOOKSTORES;
+        BsmData model = BsmData.builder(12)
+                .noiseVar(1)
+                .levelVar(1)
+                .slopeVar(1)
+                .seasonalVar(1)
+                .seasonalModel(SeasonalModel.HarrisonStevens)
+                .build();
+        BsmSpec spec = Bsm.specOf(model, false, true);
+        Outliers.Results numeric = Outliers.bsmOutliers(y, 12, spec, null, 2.7 * 2.7, true, true, false, true, "Score", "Point");
+        Outliers.Results analytic = Outliers.bsmOutliers(y, 12, spec, null, 2.7 * 2.7, true, true, false, true, "AnalyticScore", "Point");
+        assertNotNull(numeric);
+        assertNotNull(analytic);
+        assertEquals(numeric.getOutliers().getRowsCount(), analytic.getOutliers().getRowsCount(), 2);
+    }
+
+    @Test
+    public void testBatchRegSarima() {
+        double[] y = Data.RETAIL_BOOKSTORES;
+        int n = y.length;
+        FastMatrix Y = FastMatrix.make(n + 12, 3);
+        Y.set(Double.NaN);
+        Y.column(0).range(0, n).copyFrom(y, 0);
+        Y.column(1).range(12, n + 12).copyFrom(y, 0);
+        Y.column(2).range(6, n + 6).copyFrom(y, 0);
+        SarimaOrders spec = SarimaOrders.airline(12);
+        SarimaModel sarima = SarimaModel.builder(spec)
+                .theta(-.6)
+                .btheta(-.6)
+                .build();
+        Outliers.BatchResults batch = Outliers.batchRegarimaOutliers(Y, new SarimaModel[]{sarima}, false, null, new String[]{"ao", "ls"}, "fast", true, 2);
+        Outliers.Results single = Outliers.regarimaOutliers(y, sarima, false, null, 0, new String[]{"ao", "ls"}, "fast", true);
+        int no = single.getOutliers().getRowsCount();
+        assertEquals(3 * no, batch.getOutliers().getRowsCount());
+        for (int i = 0; i < no; ++i) {
+            assertEquals(single.getOutliers().get(i, 0) + 12, batch.getOutliers().get(no + i, 1));
+            assertEquals(single.getOutliers().get(i, 3), batch.getOutliers().get(no + i, 4), 1e-9);
+        }
+        assertArrayEquals(new int[]{1, 1, 1}, batch.getStatus());
+        assertArrayEquals(new String[3], batch.getErrors());
+    }
+
+    @Test
+    public void testBatchErrors() {
+        List<Callable<Outliers.Results>> tasks = List.of(
+                () -> {
+                    throw new IllegalArgumentException("invalid series");
+                },
+                () -> null);
+        Outliers.BatchResults batch = Outliers.batch(tasks, new int[2], ForkJoinPool.commonPool());
+        assertArrayEquals(new int[]{-1, 0}, batch.getStatus());
+        assertTrue(batch.getErrors()[0].contains("invalid series"));
+        assertNull(batch.getErrors()[1]);
+        assertEquals(0, batch.getOutliers().getRowsCount());
+    }
+
+    @Test
+    public void testPanelRegSarima() {
+        double[] y = Data.RETAIL_BOOKSTORES;
+        int n = y.length;
+        FastMatrix Y = FastMatrix.make(n, 3);
+        Y.column(0).copyFrom(y, 0);
+        Y.column(1).copyFrom(y, 0);
+        Y.column(1).mul(2);
+        Y.column(2).copyFrom(y, 0);
+        Y.column(2).add(n / 2, 5000);
+        SarimaOrders spec = SarimaOrders.airline(12);
+        SarimaModel sarima = SarimaModel.builder(spec)
+                .theta(-.6)
+                .btheta(-.6)
+                .build();
+        Outliers.PanelResults panel = Outliers.panelOutliers(Y, sarima, false, null, 0, new String[]{"ao", "ls"}, true, 2);
+        assertArrayEquals(new int[]{1, 1, 1}, panel.getStatus());
+        // the outliers of a series don't depend on its scale
+        Matrix o = panel.getOutliers();
+        int n0 = 0, n1 = 0;
+        for (int i = 0; i < o.getRowsCount(); ++i) {
+            if (o.get(i, 0) == 0) {
+                ++n0;
+            } else if (o.get(i, 0) == 1) {
+                ++n1;
+            }
+        }
+        assertEquals(n0, n1);
+        assertTrue(panel.getCommonOutliers().getRowsCount() >= n0);
+    }
+
     public static void main(String[] args) {
         double[] y = Data.ABS_RETAIL;
         SarimaOrders spec = SarimaOrders.airline(12);